@@ -0,0 +1,102 @@
+package com.banking.notification.crypto;
+
+import com.banking.notification.entity.NotificationRecipient;
+import com.banking.notification.repository.NotificationRecipientRepository;
+import com.banking.notification.service.RecipientVault;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Field encryption and decryption on their own, and the vault lookup for a claimed batch when every
+ * recipient is cached against when every recipient has to be loaded and decrypted.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecipientVaultBenchmark {
+
+    private static final int BATCH_SIZE = 50;
+
+    public String email = "asha.rao@example.com";
+
+    private RecipientCipher cipher;
+    private String encryptedEmail;
+    private RecipientVault warmVault;
+    private RecipientVault coldVault;
+    private List<Long> batch;
+    private long nextUncachedId = BATCH_SIZE + 1;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        byte[] key = new byte[32];
+        key[0] = 1;
+        cipher = new RecipientCipher(Base64.getEncoder().encodeToString(key));
+        encryptedEmail = cipher.encrypt(email);
+
+        batch = new ArrayList<>(BATCH_SIZE);
+        List<NotificationRecipient> recipients = new ArrayList<>(BATCH_SIZE);
+        for (long id = 1; id <= BATCH_SIZE; id++) {
+            batch.add(id);
+            recipients.add(new NotificationRecipient(id, "customer" + id + "@example.com", "98765" + (43210 + id)));
+        }
+        warmVault = new RecipientVault(repository(recipients), new SimpleMeterRegistry(), 10_000);
+        warmVault.storeAll(recipients);
+        coldVault = new RecipientVault(repository(recipients), new SimpleMeterRegistry(), 10_000);
+    }
+
+    @Benchmark
+    public String encrypt() {
+        return cipher.encrypt(email);
+    }
+
+    @Benchmark
+    public String decrypt() {
+        return cipher.decrypt(encryptedEmail);
+    }
+
+    @Benchmark
+    public Map<Long, NotificationRecipient> cachedBatch() {
+        return warmVault.findAll(batch);
+    }
+
+    // Ids never asked for before, so every one is loaded from the repository
+    @Benchmark
+    public Map<Long, NotificationRecipient> uncachedBatch() {
+        List<Long> ids = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            ids.add(nextUncachedId++);
+        }
+        return coldVault.findAll(ids);
+    }
+
+    // Returns rows as JPA would load them: both fields decrypted through the converter
+    private NotificationRecipientRepository repository(List<NotificationRecipient> recipients) {
+        EncryptedStringConverter converter = new EncryptedStringConverter(cipher);
+        List<String[]> rows = recipients.stream()
+                .map(recipient -> new String[]{cipher.encrypt(recipient.getEmail()), cipher.encrypt(recipient.getPhone())})
+                .toList();
+        return (NotificationRecipientRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{NotificationRecipientRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "saveAll" -> args[0];
+                    case "findAllById" -> {
+                        List<NotificationRecipient> found = new ArrayList<>();
+                        for (Object id : (Iterable<?>) args[0]) {
+                            String[] row = rows.get((int) (((Long) id - 1) % rows.size()));
+                            found.add(new NotificationRecipient((Long) id,
+                                    converter.convertToEntityAttribute(row[0]), converter.convertToEntityAttribute(row[1])));
+                        }
+                        yield found;
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
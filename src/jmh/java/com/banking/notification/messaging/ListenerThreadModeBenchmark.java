@@ -0,0 +1,85 @@
+package com.banking.notification.messaging;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test for the listener execution modes. Each simulated delivery blocks for the
+ * customer-service lookup and the outbox insert, the same I/O a listener invocation performs.
+ * PLATFORM mirrors the default container (one platform thread per consumer), VIRTUAL mirrors
+ * notification.listener.virtual-threads=true with the same concurrency limit.
+ * Reported time is per burst of {@code messages} deliveries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ListenerThreadModeBenchmark {
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    public String mode;
+
+    @Param({"16", "256", "2048"})
+    public int concurrency;
+
+    @Param({"4000"})
+    public int messages;
+
+    @Param({"20"})
+    public long lookupLatencyMs;
+
+    @Param({"2"})
+    public long insertLatencyMs;
+
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        executor = "VIRTUAL".equals(mode)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(concurrency);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public void drainBurst(Blackhole blackhole) throws InterruptedException {
+        Semaphore consumers = new Semaphore(concurrency);
+        CountDownLatch done = new CountDownLatch(messages);
+        for (int i = 0; i < messages; i++) {
+            consumers.acquire();
+            int delivery = i;
+            executor.execute(() -> {
+                try {
+                    blackhole.consume(handle(delivery));
+                } finally {
+                    consumers.release();
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+    }
+
+    private String handle(int delivery) {
+        try {
+            Thread.sleep(lookupLatencyMs);
+            String message = "Dear customer " + delivery + ", your account status has been updated.";
+            Thread.sleep(insertLatencyMs);
+            return message;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+}
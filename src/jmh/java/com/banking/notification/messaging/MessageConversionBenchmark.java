@@ -0,0 +1,62 @@
+package com.banking.notification.messaging;
+
+import com.banking.notification.dto.AccountUpdateEvent;
+import com.banking.notification.dto.TransactionNotificationRequest;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON to DTO conversion as the listener adapter performs it: the target type is inferred
+ * from the listener method parameter rather than taken from a __TypeId__ header.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageConversionBenchmark {
+
+    private static final String TRANSACTION_JSON = """
+            {"transactionId":918273645,"accountId":42,"accountNumber":"123456784321","amount":75000.00,
+             "transactionType":"TRANSFER_OUT","recipientEmail":"asha.rao@example.com",
+             "recipientPhone":"9876543210","customerName":"Asha Rao"}
+            """;
+    private static final String ACCOUNT_JSON = """
+            {"accountId":42,"customerId":7,"accountNumber":"123456784321","accountType":"SAVINGS",
+             "balance":125000.50,"currency":"INR","status":"FROZEN","createdAt":"2024-01-15T10:00:00"}
+            """;
+
+    private Jackson2JsonMessageConverter converter;
+    private Message transactionMessage;
+    private Message accountMessage;
+
+    @Setup
+    public void setUp() {
+        converter = new Jackson2JsonMessageConverter();
+        transactionMessage = message(TRANSACTION_JSON, TransactionNotificationRequest.class);
+        accountMessage = message(ACCOUNT_JSON, AccountUpdateEvent.class);
+    }
+
+    @Benchmark
+    public Object transactionNotificationRequest() {
+        return converter.fromMessage(transactionMessage);
+    }
+
+    @Benchmark
+    public Object accountUpdateEvent() {
+        return converter.fromMessage(accountMessage);
+    }
+
+    private static Message message(String json, Class<?> type) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        properties.setContentEncoding(StandardCharsets.UTF_8.name());
+        properties.setInferredArgumentType(type);
+        return new Message(json.getBytes(StandardCharsets.UTF_8), properties);
+    }
+}
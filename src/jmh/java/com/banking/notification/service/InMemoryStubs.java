@@ -0,0 +1,221 @@
+package com.banking.notification.service;
+
+import com.banking.notification.entity.Notification;
+import com.banking.notification.entity.NotificationRecipient;
+import com.banking.notification.entity.NotificationStatus;
+import com.banking.notification.repository.NotificationIdempotencyKeyRepository;
+import com.banking.notification.repository.NotificationRecipientRepository;
+import com.banking.notification.repository.NotificationRepository;
+import org.springframework.mail.MailException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessagePreparator;
+import jakarta.mail.internet.MimeMessage;
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * In-memory stand-ins for the repositories and the mail sender, so benchmarks exercise the
+ * service code without PostgreSQL or SMTP. Only the repository methods the outbox uses are
+ * implemented; anything else throws.
+ */
+final class InMemoryStubs {
+
+    private InMemoryStubs() {
+    }
+
+    static final class NotificationStore {
+
+        private final Map<Long, Notification> notifications = new ConcurrentHashMap<>();
+        private final Map<Long, NotificationRecipient> recipients = new ConcurrentHashMap<>();
+        private final AtomicLong ids = new AtomicLong();
+        private final AtomicLong completed = new AtomicLong();
+
+        NotificationRepository notificationRepository() {
+            return proxy(NotificationRepository.class, (proxy, method, args) -> switch (method.getName()) {
+                case "save" -> save((Notification) args[0]);
+                case "saveAll" -> {
+                    List<Notification> saved = new ArrayList<>();
+                    for (Object notification : (Iterable<?>) args[0]) {
+                        saved.add(save((Notification) notification));
+                    }
+                    yield saved;
+                }
+                case "lockDeliverable" -> lockDeliverable((String) args[0], (Integer) args[1], (Integer) args[4]);
+                case "markClaimed" -> update(args[0], args[1]);
+                case "markSent", "markFailed" -> {
+                    int updated = update(args[0], method.getName().equals("markSent") ? args[1] : NotificationStatus.FAILED);
+                    // Terminal rows are dropped so long benchmark runs keep a constant footprint
+                    for (Object id : (Collection<?>) args[0]) {
+                        notifications.remove(id);
+                        recipients.remove(id);
+                    }
+                    completed.addAndGet(updated);
+                    yield updated;
+                }
+                default -> unsupported(proxy, method.getName(), args);
+            });
+        }
+
+        NotificationRecipientRepository recipientRepository() {
+            return proxy(NotificationRecipientRepository.class, (proxy, method, args) -> switch (method.getName()) {
+                case "save" -> {
+                    NotificationRecipient recipient = (NotificationRecipient) args[0];
+                    recipients.put(recipient.getNotificationId(), recipient);
+                    yield recipient;
+                }
+                case "saveAll" -> {
+                    List<NotificationRecipient> saved = new ArrayList<>();
+                    for (Object item : (Iterable<?>) args[0]) {
+                        NotificationRecipient recipient = (NotificationRecipient) item;
+                        recipients.put(recipient.getNotificationId(), recipient);
+                        saved.add(recipient);
+                    }
+                    yield saved;
+                }
+                case "findAllById" -> {
+                    List<NotificationRecipient> found = new ArrayList<>();
+                    for (Object id : (Iterable<?>) args[0]) {
+                        NotificationRecipient recipient = recipients.get(id);
+                        if (recipient != null) {
+                            found.add(recipient);
+                        }
+                    }
+                    yield found;
+                }
+                default -> unsupported(proxy, method.getName(), args);
+            });
+        }
+
+        // Keys are not kept: every benchmark request carries a new transaction id
+        NotificationIdempotencyKeyRepository idempotencyKeyRepository() {
+            return proxy(NotificationIdempotencyKeyRepository.class, (proxy, method, args) -> switch (method.getName()) {
+                case "saveAll" -> args[0];
+                case "findById" -> Optional.empty();
+                case "findAllById" -> List.of();
+                default -> unsupported(proxy, method.getName(), args);
+            });
+        }
+
+        long completed() {
+            return completed.get();
+        }
+
+        void awaitCompleted(long target) {
+            while (completed.get() < target) {
+                LockSupport.parkNanos(1_000);
+            }
+        }
+
+        private Notification save(Notification notification) {
+            if (notification.getId() == null) {
+                notification.setId(ids.incrementAndGet());
+                notification.setCreatedAt(LocalDateTime.now());
+            }
+            notifications.put(notification.getId(), notification);
+            return notification;
+        }
+
+        // Synchronized in place of FOR UPDATE SKIP LOCKED: a claimed row is never handed out twice
+        private synchronized List<Notification> lockDeliverable(String channel, int maxPriority, int limit) {
+            List<Notification> claimed = notifications.values().stream()
+                    .filter(notification -> notification.getStatus() == NotificationStatus.PENDING)
+                    .filter(notification -> notification.getChannel().name().equals(channel))
+                    .filter(notification -> notification.getPriority().ordinal() <= maxPriority)
+                    .sorted(Comparator.comparing(Notification::getPriority).thenComparing(Notification::getId))
+                    .limit(limit)
+                    .toList();
+            claimed.forEach(notification -> notification.setStatus(NotificationStatus.PROCESSING));
+            return claimed;
+        }
+
+        private int update(Object ids, Object status) {
+            int updated = 0;
+            for (Object id : (Collection<?>) ids) {
+                Notification notification = notifications.get(id);
+                if (notification != null) {
+                    notification.setStatus((NotificationStatus) status);
+                    updated++;
+                }
+            }
+            return updated;
+        }
+    }
+
+    /**
+     * Accepts every message and only counts it.
+     */
+    static final class CountingMailSender implements JavaMailSender {
+
+        private final AtomicLong sent = new AtomicLong();
+
+        long sent() {
+            return sent.get();
+        }
+
+        @Override
+        public void send(SimpleMailMessage simpleMessage) throws MailException {
+            sent.incrementAndGet();
+        }
+
+        @Override
+        public void send(SimpleMailMessage... simpleMessages) throws MailException {
+            sent.addAndGet(simpleMessages.length);
+        }
+
+        @Override
+        public MimeMessage createMimeMessage() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public MimeMessage createMimeMessage(InputStream contentStream) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void send(MimeMessage mimeMessage) throws MailException {
+            sent.incrementAndGet();
+        }
+
+        @Override
+        public void send(MimeMessage... mimeMessages) throws MailException {
+            sent.addAndGet(mimeMessages.length);
+        }
+
+        @Override
+        public void send(MimeMessagePreparator mimeMessagePreparator) throws MailException {
+            sent.incrementAndGet();
+        }
+
+        @Override
+        public void send(MimeMessagePreparator... mimeMessagePreparators) throws MailException {
+            sent.addAndGet(mimeMessagePreparators.length);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object unsupported(Object proxy, String method, Object[] args) {
+        return switch (method) {
+            case "toString" -> "in-memory stub";
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            default -> throw new UnsupportedOperationException(method);
+        };
+    }
+}
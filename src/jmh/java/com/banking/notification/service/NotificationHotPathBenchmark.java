@@ -0,0 +1,100 @@
+package com.banking.notification.service;
+
+import com.banking.notification.channel.ChannelRouter;
+import com.banking.notification.channel.EmailChannelProvider;
+import com.banking.notification.dto.NotificationResponse;
+import com.banking.notification.dto.TransactionNotificationRequest;
+import com.banking.notification.entity.TransactionType;
+import com.banking.notification.template.NotificationTemplateEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.DefaultResourceLoader;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * sendTransactionNotification wired to in-memory repositories and a counting mail sender.
+ * {@code ingest} measures what the listener thread pays; {@code endToEnd} additionally waits
+ * until the outbox worker has claimed, sent and recorded the notification.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NotificationHotPathBenchmark {
+
+    private InMemoryStubs.NotificationStore store;
+    private EmailDispatcher emailDispatcher;
+    private OutboxDeliveryWorker deliveryWorker;
+    private NotificationServiceImpl notificationService;
+    private TransactionNotificationRequest request;
+    private long submitted;
+    private long transactionId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        MetricsService metricsService = new MetricsService(meterRegistry);
+        store = new InMemoryStubs.NotificationStore();
+
+        emailDispatcher = new EmailDispatcher(new InMemoryStubs.CountingMailSender(), metricsService,
+                2, 10_000, 50, 0, 1_000, 1_000, 1, 1_000, 3, 1_000, 10_000, 100);
+        emailDispatcher.start();
+        // Not started, so it is never reconciled against the stub repository
+        NotificationStatistics statistics = new NotificationStatistics(store.notificationRepository(), 0);
+        RecipientVault recipientVault = new RecipientVault(store.recipientRepository(), meterRegistry, 100_000);
+        NotificationOutbox outbox = new NotificationOutbox(store.notificationRepository(), recipientVault,
+                store.idempotencyKeyRepository(), statistics, 300_000, 5, 30_000, 3_600_000, 30);
+        ChannelRouter channelRouter = new ChannelRouter(
+                List.of(new EmailChannelProvider(emailDispatcher, 1_000, 60_000, 0, 1)), metricsService, 0.2);
+        deliveryWorker = new OutboxDeliveryWorker(outbox, channelRouter, metricsService, 2, 50, 1_000, 1, 100);
+        deliveryWorker.start();
+
+        NotificationTemplateEngine templateEngine = new NotificationTemplateEngine(
+                new DefaultResourceLoader(), "classpath:/templates/notifications/", "en-IN", 0);
+        templateEngine.start();
+        // Never called: transaction notifications carry their own recipient details
+        CustomerServiceClient customerServiceClient = new CustomerServiceClient(meterRegistry, metricsService,
+                "http://localhost:8080", 1_000, 2_000, 10, 500, 10, 0, 5, 30_000);
+        CustomerDetailsCache customerDetailsCache = new CustomerDetailsCache(
+                new CustomerLookupBatcher(customerServiceClient, meterRegistry, false, 10, 100, 1),
+                meterRegistry, 600, 60, 1_000);
+
+        // Not started: the benchmark never produces failed rows
+        RetryScheduler retryScheduler = new RetryScheduler(outbox, channelRouter, metricsService, 100, 20, 0, 10);
+        IdempotencyGuard idempotencyGuard = new IdempotencyGuard(store.idempotencyKeyRepository(), meterRegistry,
+                1_000_000, 0.01, 168);
+        notificationService = new NotificationServiceImpl(store.notificationRepository(), outbox, deliveryWorker,
+                customerDetailsCache, templateEngine, metricsService, retryScheduler, idempotencyGuard, statistics,
+                MaskingBenchmark.defaultMasker());
+        request = new TransactionNotificationRequest(
+                918273645L, 42L, "123456784321", new BigDecimal("75000.00"), TransactionType.TRANSFER_OUT,
+                "asha.rao@example.com", "9876543210", "Asha Rao");
+        submitted = 0;
+        transactionId = 0;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        deliveryWorker.stop();
+        emailDispatcher.stop();
+    }
+
+    @Benchmark
+    public NotificationResponse ingest() {
+        // A fresh transaction id per call, or every request after the first is dropped as a duplicate
+        request.setTransactionId(++transactionId);
+        return notificationService.sendTransactionNotification(request);
+    }
+
+    @Benchmark
+    public NotificationResponse endToEnd() {
+        request.setTransactionId(++transactionId);
+        NotificationResponse response = notificationService.sendTransactionNotification(request);
+        store.awaitCompleted(++submitted);
+        return response;
+    }
+}
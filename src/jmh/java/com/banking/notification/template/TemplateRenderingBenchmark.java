@@ -0,0 +1,84 @@
+package com.banking.notification.template;
+
+import com.banking.notification.entity.NotificationChannel;
+import com.banking.notification.entity.NotificationType;
+import com.banking.notification.entity.TransactionType;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.DefaultResourceLoader;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compiled template rendering against the String.format path it replaced.
+ * Run with -prof gc to compare allocation per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TemplateRenderingBenchmark {
+
+    private NotificationTemplateEngine engine;
+    private LocalDateTime now;
+    private BigDecimal amount;
+
+    @Setup
+    public void setUp() {
+        engine = new NotificationTemplateEngine(new DefaultResourceLoader(), "classpath:/templates/notifications/", "en-IN", 0);
+        engine.start();
+        now = LocalDateTime.now();
+        amount = new BigDecimal("75000.00");
+    }
+
+    @Benchmark
+    public RenderedMessage compiledTemplate() {
+        TemplateModel model = new TemplateModel()
+                .set(TemplateVariable.CUSTOMER_NAME, "Asha Rao")
+                .set(TemplateVariable.ACCOUNT_NUMBER, "XXXX-XXXX-4321")
+                .set(TemplateVariable.AMOUNT, amount)
+                .set(TemplateVariable.TRANSACTION_TYPE, TransactionType.TRANSFER_OUT)
+                .set(TemplateVariable.TRANSACTION_ID, 918273645L)
+                .set(TemplateVariable.DATE_TIME, now);
+        return engine.render(NotificationType.HIGH_VALUE_TRANSACTION, NotificationChannel.EMAIL, model);
+    }
+
+    @Benchmark
+    public RenderedMessage accountStatusTemplate() {
+        TemplateModel model = new TemplateModel()
+                .set(TemplateVariable.CUSTOMER_NAME, "Asha Rao")
+                .set(TemplateVariable.ACCOUNT_NUMBER, "XXXX-XXXX-4321")
+                .set(TemplateVariable.RAW_ACCOUNT_NUMBER, "123456784321")
+                .set(TemplateVariable.ACCOUNT_STATUS, "FROZEN");
+        return engine.render(NotificationType.ACCOUNT_FROZEN, NotificationChannel.EMAIL, model);
+    }
+
+    @Benchmark
+    public RenderedMessage legacyStringFormat() {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd-MMM-yyyy HH:mm");
+        String body = String.format("""
+                Dear %s,
+                This is to inform you about a high-value transaction on your account.
+                Transaction Details:
+                - Account Number: %s
+                - Amount: ₹%s
+                - Transaction Type: %s
+                - Transaction ID: %s
+                - Date & Time: %s
+                If you did not authorize this transaction, please contact us immediately.
+                Best Regards,
+                Banking Team
+                """,
+                "Asha Rao",
+                "XXXX-XXXX-4321",
+                amount,
+                TransactionType.TRANSFER_OUT,
+                918273645L,
+                now.format(formatter)
+        );
+        return new RenderedMessage("High-Value Transaction Alert - ₹" + amount, body);
+    }
+}
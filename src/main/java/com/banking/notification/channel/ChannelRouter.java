@@ -0,0 +1,115 @@
+package com.banking.notification.channel;
+
+import com.banking.notification.entity.Notification;
+import com.banking.notification.entity.NotificationChannel;
+import com.banking.notification.entity.NotificationPriority;
+import com.banking.notification.entity.NotificationRecipient;
+import com.banking.notification.service.MetricsService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Routes a claimed notification to the provider for its channel. Sends are paced by the channel's
+ * rate limiter on the calling delivery thread, so a throttled provider sees a steady rate rather
+ * than bursts, then the channel's timeout applies and delivery latency is recorded.
+ * <p>
+ * HIGH priority sends have a limiter of their own holding {@code reserved-rate-share} of the
+ * channel's rate and burst; NORMAL sends get the rest. A backlog of routine mail therefore never
+ * queues fraud alerts behind it, and the two together still stay within the provider's rate. The
+ * price is that HIGH traffic alone is capped at its share, so size the share for its peak. A share
+ * of 0 puts both priorities on one limiter.
+ */
+@Component
+public class ChannelRouter {
+
+    private final Map<NotificationChannel, NotificationChannelProvider> providers = new EnumMap<>(NotificationChannel.class);
+    private final Map<NotificationChannel, RateLimiter> rateLimiters = new EnumMap<>(NotificationChannel.class);
+    private final Map<NotificationChannel, RateLimiter> priorityRateLimiters = new EnumMap<>(NotificationChannel.class);
+    private final MetricsService metricsService;
+
+    public ChannelRouter(List<NotificationChannelProvider> providers,
+                         MetricsService metricsService,
+                         @Value("${notification.priority.reserved-rate-share}") double reservedRateShare) {
+        if (reservedRateShare < 0 || reservedRateShare >= 1) {
+            throw new IllegalArgumentException("notification.priority.reserved-rate-share must be at least 0 and below 1");
+        }
+        for (NotificationChannelProvider provider : providers) {
+            if (this.providers.putIfAbsent(provider.channel(), provider) != null) {
+                throw new IllegalStateException("More than one provider for channel " + provider.channel());
+            }
+            double rate = provider.ratePerSecond();
+            if (rate <= 0) {
+                continue;
+            }
+            if (reservedRateShare > 0) {
+                int priorityBurst = Math.max(1, (int) Math.round(provider.burst() * reservedRateShare));
+                rateLimiters.put(provider.channel(),
+                        RateLimiter.create(rate * (1 - reservedRateShare), Math.max(1, provider.burst() - priorityBurst)));
+                priorityRateLimiters.put(provider.channel(), RateLimiter.create(rate * reservedRateShare, priorityBurst));
+            } else {
+                RateLimiter shared = RateLimiter.create(rate, provider.burst());
+                rateLimiters.put(provider.channel(), shared);
+                priorityRateLimiters.put(provider.channel(), shared);
+            }
+        }
+        this.metricsService = metricsService;
+    }
+
+    public Collection<NotificationChannelProvider> providers() {
+        return providers.values();
+    }
+
+    /**
+     * True if any channel currently has callers waiting for its rate limit.
+     */
+    public boolean isRateLimited() {
+        for (RateLimiter rateLimiter : rateLimiters.values()) {
+            if (rateLimiter.isSaturated()) {
+                return true;
+            }
+        }
+        for (RateLimiter rateLimiter : priorityRateLimiters.values()) {
+            if (rateLimiter.isSaturated()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Blocks the calling delivery thread while the channel is over its rate
+    public CompletableFuture<Void> send(Notification notification, NotificationRecipient recipient) {
+        NotificationChannelProvider provider = providers.get(notification.getChannel());
+        if (provider == null) {
+            return CompletableFuture.failedFuture(new IllegalStateException("No provider for channel " + notification.getChannel()));
+        }
+        RateLimiter rateLimiter = (notification.getPriority() == NotificationPriority.HIGH ? priorityRateLimiters : rateLimiters)
+                .get(provider.channel());
+        if (rateLimiter != null) {
+            long waited = rateLimiter.acquire();
+            if (waited > 0) {
+                metricsService.recordRateLimitWait(provider.channel(), waited);
+            }
+        }
+        long start = System.nanoTime();
+        CompletableFuture<Void> result;
+        try {
+            result = provider.send(notification, recipient);
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        // orTimeout completes the provider's own future, which tells the provider to drop the send if it has not
+        // started yet, so a late success cannot follow the FAILED outcome and its retry
+        return result.orTimeout(provider.timeoutMs(), TimeUnit.MILLISECONDS)
+                .whenComplete((ignored, error) -> {
+                    if (error == null) {
+                        metricsService.recordDeliveryLatency(provider.channel(), System.nanoTime() - start);
+                    }
+                });
+    }
+}
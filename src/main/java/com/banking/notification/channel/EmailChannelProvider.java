@@ -0,0 +1,65 @@
+package com.banking.notification.channel;
+
+import com.banking.notification.entity.Notification;
+import com.banking.notification.entity.NotificationChannel;
+import com.banking.notification.entity.NotificationRecipient;
+import com.banking.notification.service.EmailDispatcher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.concurrent.CompletableFuture;
+
+@Component
+public class EmailChannelProvider implements NotificationChannelProvider {
+
+    private final EmailDispatcher emailDispatcher;
+    private final int maxInFlight;
+    private final long timeoutMs;
+    private final double ratePerSecond;
+    private final int burst;
+
+    public EmailChannelProvider(EmailDispatcher emailDispatcher,
+                                @Value("${notification.channel.email.max-in-flight}") int maxInFlight,
+                                @Value("${notification.channel.email.timeout-ms}") long timeoutMs,
+                                @Value("${notification.channel.email.rate-per-second}") double ratePerSecond,
+                                @Value("${notification.channel.email.burst}") int burst) {
+        this.emailDispatcher = emailDispatcher;
+        this.maxInFlight = maxInFlight;
+        this.timeoutMs = timeoutMs;
+        this.ratePerSecond = ratePerSecond;
+        this.burst = burst;
+    }
+
+    @Override
+    public NotificationChannel channel() {
+        return NotificationChannel.EMAIL;
+    }
+
+    @Override
+    public int maxInFlight() {
+        return maxInFlight;
+    }
+
+    @Override
+    public long timeoutMs() {
+        return timeoutMs;
+    }
+
+    @Override
+    public double ratePerSecond() {
+        return ratePerSecond;
+    }
+
+    @Override
+    public int burst() {
+        return burst;
+    }
+
+    @Override
+    public CompletableFuture<Void> send(Notification notification, NotificationRecipient recipient) {
+        if (recipient == null || recipient.getEmail() == null) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Recipient details unavailable"));
+        }
+        return emailDispatcher.dispatch(recipient.getEmail(), notification.getSubject(), notification.getMessage(),
+                notification.getPriority());
+    }
+}
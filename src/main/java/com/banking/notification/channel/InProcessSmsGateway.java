@@ -0,0 +1,47 @@
+package com.banking.notification.channel;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Stand-in SMS gateway for local runs and load tests: waits for a configurable latency, fails a
+ * configurable fraction of messages and discards the rest.
+ */
+@Component
+@ConditionalOnProperty(name = "notification.sms.gateway", havingValue = "stub", matchIfMissing = true)
+@Slf4j
+public class InProcessSmsGateway implements SmsGateway {
+
+    private final long latencyNanos;
+    private final double failureRate;
+    private final LongAdder sent = new LongAdder();
+
+    public InProcessSmsGateway(@Value("${notification.sms.stub.latency-ms}") long latencyMs,
+                               @Value("${notification.sms.stub.failure-rate}") double failureRate) {
+        this.latencyNanos = TimeUnit.MILLISECONDS.toNanos(latencyMs);
+        this.failureRate = failureRate;
+        log.warn("Using the in-process SMS stub; text messages are not delivered");
+    }
+
+    @Override
+    public void send(String phoneNumber, String text) {
+        if (latencyNanos > 0) {
+            LockSupport.parkNanos(latencyNanos);
+        }
+        if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            throw new IllegalStateException("Simulated SMS gateway failure");
+        }
+        sent.increment();
+        log.debug("Stub SMS to {}: {}", phoneNumber, text);
+    }
+
+    public long sentCount() {
+        return sent.sum();
+    }
+}
@@ -0,0 +1,33 @@
+package com.banking.notification.channel;
+
+import com.banking.notification.entity.Notification;
+import com.banking.notification.entity.NotificationChannel;
+import com.banking.notification.entity.NotificationRecipient;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Delivers notifications for one {@link NotificationChannel}. Implementations must not block the
+ * caller: sending happens on the provider's own bounded executor and the returned future completes
+ * once the message was accepted by the channel, or exceptionally if it was not.
+ * <p>
+ * Each provider gets its own outbox delivery lane, capped at {@link #maxInFlight()} claimed rows.
+ * {@link ChannelRouter} paces sends to {@link #ratePerSecond()} (not positive means unlimited)
+ * and fails any send that takes longer than {@link #timeoutMs()} by completing the returned future
+ * with a {@link java.util.concurrent.TimeoutException}. From then on the row counts as failed and
+ * will be retried, so a provider must not start or retry a send whose future is already done. Keep
+ * the timeout above the time a single attempt can take on the wire, which cannot be called back.
+ */
+public interface NotificationChannelProvider {
+
+    NotificationChannel channel();
+
+    int maxInFlight();
+
+    long timeoutMs();
+
+    double ratePerSecond();
+
+    int burst();
+
+    CompletableFuture<Void> send(Notification notification, NotificationRecipient recipient);
+}
@@ -0,0 +1,67 @@
+package com.banking.notification.channel;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Token bucket in its GCRA form: the whole state is one "theoretical arrival time" that each
+ * caller advances by one emission interval with a single CAS, then sleeps until its reserved
+ * slot. No locks, and callers are served in reservation order. Up to {@code burst} permits
+ * are available immediately after an idle period.
+ */
+public final class RateLimiter {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong theoreticalArrival;
+
+    private RateLimiter(double permitsPerSecond, int burst) {
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / permitsPerSecond));
+        this.toleranceNanos = intervalNanos * Math.max(0, burst - 1);
+        this.theoreticalArrival = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Returns null when {@code permitsPerSecond} is not positive, meaning unlimited.
+     */
+    public static RateLimiter create(double permitsPerSecond, int burst) {
+        return permitsPerSecond > 0 ? new RateLimiter(permitsPerSecond, burst) : null;
+    }
+
+    /**
+     * Reserves the next permit and waits for it. Returns the nanoseconds spent waiting.
+     */
+    public long acquire() {
+        long now = System.nanoTime();
+        long wait = reserve(now);
+        if (wait <= 0) {
+            return 0;
+        }
+        long deadline = now + wait;
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(this, remaining);
+            if (Thread.currentThread().isInterrupted()) {
+                break;
+            }
+        }
+        return System.nanoTime() - now;
+    }
+
+    /**
+     * True while callers are queued behind the quota, i.e. the bucket is empty.
+     */
+    public boolean isSaturated() {
+        return theoreticalArrival.get() - toleranceNanos > System.nanoTime();
+    }
+
+    private long reserve(long now) {
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long start = Math.max(arrival, now);
+            if (theoreticalArrival.compareAndSet(arrival, start + intervalNanos)) {
+                return start - toleranceNanos - now;
+            }
+        }
+    }
+}
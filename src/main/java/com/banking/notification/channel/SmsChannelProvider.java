@@ -0,0 +1,117 @@
+package com.banking.notification.channel;
+
+import com.banking.notification.entity.Notification;
+import com.banking.notification.entity.NotificationChannel;
+import com.banking.notification.entity.NotificationPriority;
+import com.banking.notification.entity.NotificationRecipient;
+import com.banking.notification.service.MetricsService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends text messages through the {@link SmsGateway} on a dedicated fixed pool with a bounded
+ * queue, so a slow gateway backs up only the SMS lane. When the queue is full the send fails
+ * immediately and the row is retried later. With {@code priority-workers} set, HIGH priority
+ * messages get a pool of their own and never wait behind routine traffic.
+ */
+@Component
+public class SmsChannelProvider implements NotificationChannelProvider {
+
+    private final SmsGateway smsGateway;
+    private final ThreadPoolExecutor executor;
+    private final ThreadPoolExecutor priorityExecutor;
+    private final int maxInFlight;
+    private final long timeoutMs;
+    private final double ratePerSecond;
+    private final int burst;
+
+    public SmsChannelProvider(SmsGateway smsGateway,
+                              MetricsService metricsService,
+                              @Value("${notification.channel.sms.workers}") int workers,
+                              @Value("${notification.channel.sms.queue-capacity}") int queueCapacity,
+                              @Value("${notification.channel.sms.max-in-flight}") int maxInFlight,
+                              @Value("${notification.channel.sms.timeout-ms}") long timeoutMs,
+                              @Value("${notification.channel.sms.rate-per-second}") double ratePerSecond,
+                              @Value("${notification.channel.sms.burst}") int burst,
+                              @Value("${notification.channel.sms.priority-workers}") int priorityWorkers) {
+        this.smsGateway = smsGateway;
+        this.maxInFlight = maxInFlight;
+        this.timeoutMs = timeoutMs;
+        this.ratePerSecond = ratePerSecond;
+        this.burst = burst;
+        this.executor = newExecutor(workers, queueCapacity, "sms-sender-");
+        metricsService.registerChannelQueue(NotificationChannel.SMS, NotificationPriority.NORMAL, executor.getQueue());
+        if (priorityWorkers > 0) {
+            this.priorityExecutor = newExecutor(priorityWorkers, queueCapacity, "sms-sender-priority-");
+            metricsService.registerChannelQueue(NotificationChannel.SMS, NotificationPriority.HIGH, priorityExecutor.getQueue());
+        } else {
+            this.priorityExecutor = executor;
+        }
+    }
+
+    private static ThreadPoolExecutor newExecutor(int workers, int queueCapacity, String threadPrefix) {
+        AtomicInteger threadIndex = new AtomicInteger();
+        return new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, threadPrefix + threadIndex.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        executor.shutdown();
+        priorityExecutor.shutdown();
+        executor.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS);
+        priorityExecutor.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public NotificationChannel channel() {
+        return NotificationChannel.SMS;
+    }
+
+    @Override
+    public int maxInFlight() {
+        return maxInFlight;
+    }
+
+    @Override
+    public long timeoutMs() {
+        return timeoutMs;
+    }
+
+    @Override
+    public double ratePerSecond() {
+        return ratePerSecond;
+    }
+
+    @Override
+    public int burst() {
+        return burst;
+    }
+
+    @Override
+    public CompletableFuture<Void> send(Notification notification, NotificationRecipient recipient) {
+        if (recipient == null || recipient.getPhone() == null) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Recipient phone unavailable"));
+        }
+        try {
+            ThreadPoolExecutor target = notification.getPriority() == NotificationPriority.HIGH ? priorityExecutor : executor;
+            // runAsync skips the task if the router timed the future out while it was queued
+            return CompletableFuture.runAsync(() -> smsGateway.send(recipient.getPhone(), notification.getMessage()), target);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException("SMS send queue is full", e));
+        }
+    }
+}
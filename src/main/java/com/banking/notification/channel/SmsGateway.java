@@ -0,0 +1,10 @@
+package com.banking.notification.channel;
+
+/**
+ * Sends one text message. Called on an SMS provider worker thread, so implementations may block;
+ * failures are reported by throwing.
+ */
+public interface SmsGateway {
+
+    void send(String phoneNumber, String text);
+}
@@ -0,0 +1,55 @@
+package com.banking.notification.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+@Configuration
+@Slf4j
+public class RabbitListenerConfig {
+
+    @Value("${notification.listener.virtual-threads}")
+    private boolean virtualThreads;
+
+    // Replaces Boot's default factory; spring.rabbitmq.listener.simple.* settings still apply.
+    // In virtual-thread mode every consumer, and the customer lookup and outbox insert it performs,
+    // runs on a virtual thread, so per-queue concurrency can be raised without growing a platform pool.
+    @Bean
+    public SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory) {
+        return createFactory(configurer, connectionFactory);
+    }
+
+    // Delivers up to batch.size messages (or whatever arrived within receive-timeout-ms) as one List;
+    // the whole batch is acked once the listener returns
+    @Bean
+    public SimpleRabbitListenerContainerFactory batchRabbitListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            @Value("${notification.listener.transaction.batch.size}") int batchSize,
+            @Value("${notification.listener.transaction.batch.receive-timeout-ms}") long receiveTimeoutMs) {
+        SimpleRabbitListenerContainerFactory factory = createFactory(configurer, connectionFactory);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setReceiveTimeout(receiveTimeoutMs);
+        return factory;
+    }
+
+    private SimpleRabbitListenerContainerFactory createFactory(SimpleRabbitListenerContainerFactoryConfigurer configurer,
+                                                               ConnectionFactory connectionFactory) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        if (virtualThreads) {
+            factory.setTaskExecutor(new VirtualThreadTaskExecutor("rabbit-listener-"));
+            log.info("RabbitMQ listeners run on virtual threads");
+        }
+        return factory;
+    }
+}
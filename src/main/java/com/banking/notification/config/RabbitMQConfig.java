@@ -5,8 +5,11 @@ import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import java.util.ArrayList;
+import java.util.List;
 
 @Configuration
 public class RabbitMQConfig {
@@ -14,15 +17,35 @@ public class RabbitMQConfig {
     // Queue names
     public static final String TRANSACTION_NOTIFICATION_QUEUE = "transaction.notification.queue";
     public static final String ACCOUNT_UPDATE_QUEUE = "account.update.queue";
+    public static final String ACCOUNT_UPDATE_RETRY_QUEUE = "account.update.retry.queue";
+    public static final String PARKING_LOT_QUEUE = "notification.parking-lot.queue";
+    // Consumed queues that failed messages are retried from and parked for
+    public static final List<String> RETRYABLE_QUEUES = List.of(TRANSACTION_NOTIFICATION_QUEUE, ACCOUNT_UPDATE_QUEUE);
 
     // Exchange names
     public static final String TRANSACTION_EXCHANGE = "transaction.exchange";
     public static final String ACCOUNT_EXCHANGE = "account.exchange";
+    public static final String CUSTOMER_EXCHANGE = "customer.exchange";
+    public static final String DEAD_LETTER_EXCHANGE = "notification.dlx";
 
     // Routing keys
     public static final String TRANSACTION_ROUTING_KEY = "transaction.notification";
+    public static final String ACCOUNT_UPDATE_ROUTING_KEY = "account.update";
+    public static final String CUSTOMER_UPDATED_ROUTING_KEY = "customer.updated";
+
+    /**
+     * Delay queue a failed message waits in before its given retry, counted from 1.
+     */
+    public static String retryQueue(String queue, int attempt) {
+        return queue + ".retry." + attempt;
+    }
 
     // Queues
+    // Declared exactly as before: redeclaring an existing queue with other arguments fails with PRECONDITION_FAILED.
+    // The dead letter exchange for messages rejected outright comes from the notification-dlx broker policy instead.
+    // No max-length: expired retries are dead-lettered back here without publisher confirms, so a length limit would
+    // silently drop them. While the BackpressureController pauses the listeners the backlog waits here, and the broker's
+    // memory and disk alarms throttle publishers if it grows too far
     @Bean
     public Queue transactionNotificationQueue() {
         return new Queue(TRANSACTION_NOTIFICATION_QUEUE, true);
@@ -33,6 +56,44 @@ public class RabbitMQConfig {
         return new Queue(ACCOUNT_UPDATE_QUEUE, true);
     }
 
+    // No consumers: a retried message expires after its tier's delay and is dead-lettered back onto its queue
+    @Bean
+    public Declarables retryQueues(@Value("${notification.messaging.retry.delays-ms}") int[] delaysMs) {
+        List<Declarable> queues = new ArrayList<>();
+        for (String queue : RETRYABLE_QUEUES) {
+            for (int attempt = 1; attempt <= delaysMs.length; attempt++) {
+                queues.add(QueueBuilder.durable(retryQueue(queue, attempt))
+                        .ttl(delaysMs[attempt - 1])
+                        .deadLetterExchange("")
+                        .deadLetterRoutingKey(queue)
+                        .build());
+            }
+        }
+        return new Declarables(queues);
+    }
+
+    // No consumers: messages that ran out of retries or were rejected wait here for the requeue endpoint
+    @Bean
+    public Queue parkingLotQueue() {
+        return QueueBuilder.durable(PARKING_LOT_QUEUE).build();
+    }
+
+    // No consumers: parked account updates expire after the TTL and are dead-lettered back onto account.update.queue
+    @Bean
+    public Queue accountUpdateRetryQueue(@Value("${customer.service.park-ttl-ms}") int parkTtlMs) {
+        return QueueBuilder.durable(ACCOUNT_UPDATE_RETRY_QUEUE)
+                .ttl(parkTtlMs)
+                .deadLetterExchange("")
+                .deadLetterRoutingKey(ACCOUNT_UPDATE_QUEUE)
+                .build();
+    }
+
+    // Per-instance, auto-delete queue for cache invalidation broadcasts
+    @Bean
+    public Queue customerUpdateQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy("customer.updated.notification-"));
+    }
+
     // Exchanges
     @Bean
     public TopicExchange transactionExchange() {
@@ -44,6 +105,16 @@ public class RabbitMQConfig {
         return new TopicExchange(ACCOUNT_EXCHANGE);
     }
 
+    @Bean
+    public TopicExchange customerExchange() {
+        return new TopicExchange(CUSTOMER_EXCHANGE);
+    }
+
+    @Bean
+    public FanoutExchange deadLetterExchange() {
+        return new FanoutExchange(DEAD_LETTER_EXCHANGE);
+    }
+
     // Bindings
     @Bean
     public Binding transactionNotificationBinding() {
@@ -53,6 +124,29 @@ public class RabbitMQConfig {
                 .with(TRANSACTION_ROUTING_KEY);
     }
 
+    @Bean
+    public Binding accountUpdateBinding() {
+        return BindingBuilder
+                .bind(accountUpdateQueue())
+                .to(accountExchange())
+                .with(ACCOUNT_UPDATE_ROUTING_KEY);
+    }
+
+    @Bean
+    public Binding parkingLotBinding() {
+        return BindingBuilder
+                .bind(parkingLotQueue())
+                .to(deadLetterExchange());
+    }
+
+    @Bean
+    public Binding customerUpdateBinding() {
+        return BindingBuilder
+                .bind(customerUpdateQueue())
+                .to(customerExchange())
+                .with(CUSTOMER_UPDATED_ROUTING_KEY);
+    }
+
     // Message converter for JSON
     @Bean
     public MessageConverter jsonMessageConverter() {
@@ -3,12 +3,22 @@ package com.banking.notification.controller;
 import com.banking.notification.dto.*;
 import com.banking.notification.entity.Notification;
 import com.banking.notification.service.NotificationService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.util.List;
 
 @RestController
@@ -17,7 +27,10 @@ import java.util.List;
 @Tag(name = "Notification Management", description = "APIs for managing notifications")
 public class NotificationController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     private final NotificationService notificationService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/transaction")
     @Operation(summary = "Send transaction notification", description = "Sends notification for high-value transactions")
@@ -36,10 +49,33 @@ public class NotificationController {
     }
 
     @GetMapping
-    @Operation(summary = "Get all notifications", description = "Retrieves all notifications from the database")
-    public ResponseEntity<List<Notification>> getAllNotifications() {
-        List<Notification> notifications = notificationService.getAllNotifications();
-        return ResponseEntity.ok(notifications);
+    @Operation(summary = "Query notifications", description = "Newest first, filtered and keyset-paginated; pass nextCursor back as cursor for the next page")
+    public ResponseEntity<NotificationPage> getNotifications(
+            @ParameterObject NotificationFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(notificationService.findNotifications(filter, cursor, limit));
+    }
+
+    @GetMapping(value = "/export", produces = NDJSON)
+    @Operation(summary = "Export notifications", description = "Streams every matching notification as newline-delimited JSON")
+    public ResponseEntity<StreamingResponseBody> exportNotifications(@ParameterObject NotificationFilter filter) {
+        ObjectWriter writer = objectMapper.writerFor(NotificationSummary.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                notificationService.exportNotifications(filter, summary -> {
+                    try {
+                        writer.writeValue(generator, summary);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
     }
 
     @GetMapping("/recent")
@@ -49,6 +85,12 @@ public class NotificationController {
         return ResponseEntity.ok(notifications);
     }
 
+    @GetMapping("/stats")
+    @Operation(summary = "Get notification statistics", description = "Counts by status, type and channel plus recent activity, served from memory")
+    public ResponseEntity<NotificationStats> getStats() {
+        return ResponseEntity.ok(notificationService.getStats());
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get notification by ID", description = "Retrieves a specific notification by its ID")
     public ResponseEntity<Notification> getNotificationById(@PathVariable Long id) {
@@ -57,9 +99,19 @@ public class NotificationController {
     }
 
     @PostMapping("/retry-failed")
-    @Operation(summary = "Retry failed notifications", description = "Retries sending all failed notifications")
-    public ResponseEntity<String> retryFailedNotifications() {
-        notificationService.retryFailedNotifications();
-        return ResponseEntity.ok("Failed notifications retry initiated");
+    @Operation(summary = "Retry failed notifications", description = "Starts a background retry of all failed notifications and returns its job")
+    public ResponseEntity<RetryJobStatus> retryFailedNotifications() {
+        RetryJobStatus job = notificationService.retryFailedNotifications();
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/notifications/retry-jobs/" + job.getJobId()))
+                .body(job);
+    }
+
+    @GetMapping("/retry-jobs/{jobId}")
+    @Operation(summary = "Get retry job progress", description = "Retrieves the progress of a retry started by retry-failed")
+    public ResponseEntity<RetryJobStatus> getRetryJob(@PathVariable String jobId) {
+        return notificationService.getRetryJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 }
@@ -0,0 +1,32 @@
+package com.banking.notification.controller;
+
+import com.banking.notification.dto.ParkingLotRequeueResult;
+import com.banking.notification.messaging.ParkingLotRequeuer;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin/parking-lot")
+@RequiredArgsConstructor
+@Tag(name = "Parking Lot", description = "APIs for messages that failed all their retries")
+public class ParkingLotController {
+
+    private final ParkingLotRequeuer parkingLotRequeuer;
+
+    @PostMapping("/requeue")
+    @Operation(summary = "Requeue parked messages", description = "Moves up to limit parked messages back onto their queues, throttled; 409 while another requeue runs")
+    public ResponseEntity<ParkingLotRequeueResult> requeue(
+            @RequestParam(required = false) String queue,
+            @RequestParam(defaultValue = "1000") int limit) {
+        return parkingLotRequeuer.requeue(queue, limit)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.status(HttpStatus.CONFLICT).build());
+    }
+}
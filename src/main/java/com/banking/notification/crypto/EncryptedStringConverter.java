@@ -0,0 +1,25 @@
+package com.banking.notification.crypto;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+// Created by Hibernate through Spring's bean container, so the cipher is injected
+@Converter
+public class EncryptedStringConverter implements AttributeConverter<String, String> {
+
+    private final RecipientCipher recipientCipher;
+
+    public EncryptedStringConverter(RecipientCipher recipientCipher) {
+        this.recipientCipher = recipientCipher;
+    }
+
+    @Override
+    public String convertToDatabaseColumn(String attribute) {
+        return recipientCipher.encrypt(attribute);
+    }
+
+    @Override
+    public String convertToEntityAttribute(String column) {
+        return recipientCipher.decrypt(column);
+    }
+}
@@ -0,0 +1,95 @@
+package com.banking.notification.crypto;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import javax.crypto.Cipher;
+import javax.crypto.NoSuchPaddingException;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * AES-GCM encryption for recipient contact details at rest. Every value gets a fresh 96-bit IV,
+ * stored as {@code v1:} followed by base64 of IV and ciphertext. Values without the prefix were
+ * written before encryption was introduced and are returned unchanged. The key must be a base64
+ * encoded 256 bit key; the service refuses to start without one.
+ */
+@Component
+public class RecipientCipher {
+
+    private static final String PREFIX = "v1:";
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_BITS = 128;
+    private static final int KEY_LENGTH = 32;
+
+    private final SecretKey key;
+    private final SecureRandom random = new SecureRandom();
+    // Cipher instances are not thread-safe, and Cipher.getInstance is a provider lookup
+    private final ThreadLocal<Cipher> ciphers = ThreadLocal.withInitial(RecipientCipher::newCipher);
+
+    public RecipientCipher(@Value("${notification.pii.encryption-key}") String base64Key) {
+        if (base64Key == null || base64Key.isBlank()) {
+            throw new IllegalStateException("notification.pii.encryption-key is not set; provide a base64 encoded 256 bit key in NOTIFICATION_PII_KEY");
+        }
+        byte[] keyBytes;
+        try {
+            keyBytes = Base64.getDecoder().decode(base64Key.strip());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("notification.pii.encryption-key is not valid base64", e);
+        }
+        if (keyBytes.length != KEY_LENGTH) {
+            throw new IllegalStateException("notification.pii.encryption-key must be a base64 encoded 256 bit key, got "
+                    + keyBytes.length * 8 + " bits");
+        }
+        this.key = new SecretKeySpec(keyBytes, "AES");
+    }
+
+    public String encrypt(String plaintext) {
+        if (plaintext == null) {
+            return null;
+        }
+        byte[] iv = new byte[IV_LENGTH];
+        random.nextBytes(iv);
+        try {
+            Cipher cipher = ciphers.get();
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, iv));
+            byte[] input = plaintext.getBytes(StandardCharsets.UTF_8);
+            ByteBuffer output = ByteBuffer.allocate(IV_LENGTH + cipher.getOutputSize(input.length));
+            output.put(iv);
+            cipher.doFinal(ByteBuffer.wrap(input), output);
+            return PREFIX + Base64.getEncoder().encodeToString(output.array());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot encrypt recipient field", e);
+        }
+    }
+
+    public String decrypt(String stored) {
+        if (stored == null || !stored.startsWith(PREFIX)) {
+            return stored;
+        }
+        byte[] data = Base64.getDecoder().decode(stored.substring(PREFIX.length()));
+        try {
+            Cipher cipher = ciphers.get();
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, data, 0, IV_LENGTH));
+            return new String(cipher.doFinal(data, IV_LENGTH, data.length - IV_LENGTH), StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException e) {
+            // Wrong key or a tampered value; GCM authenticates the ciphertext
+            throw new IllegalStateException("Cannot decrypt recipient field", e);
+        }
+    }
+
+    private static Cipher newCipher() {
+        try {
+            return Cipher.getInstance(TRANSFORMATION);
+        } catch (NoSuchAlgorithmException | NoSuchPaddingException e) {
+            throw new IllegalStateException(TRANSFORMATION + " is not available", e);
+        }
+    }
+}
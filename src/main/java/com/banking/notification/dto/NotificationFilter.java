@@ -0,0 +1,25 @@
+package com.banking.notification.dto;
+
+import com.banking.notification.entity.NotificationChannel;
+import com.banking.notification.entity.NotificationStatus;
+import com.banking.notification.entity.NotificationType;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import java.time.LocalDateTime;
+
+// Bound from query parameters; unset fields do not filter
+@Data
+@NoArgsConstructor
+public class NotificationFilter {
+    private NotificationStatus status;
+    private NotificationType type;
+    private NotificationChannel channel;
+    private Long referenceId;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;
+}
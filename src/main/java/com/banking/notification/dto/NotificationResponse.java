@@ -4,12 +4,20 @@ import com.banking.notification.entity.NotificationStatus;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class NotificationResponse {
+    // First queued row, kept for existing clients; with BOTH channels it is the email row
     private Long notificationId;
     private NotificationStatus status;
     private String message;
+    // One row per channel the notification was queued on
+    private List<Long> notificationIds = List.of();
+
+    public NotificationResponse(Long notificationId, NotificationStatus status, String message) {
+        this(notificationId, status, message, notificationId == null ? List.of() : List.of(notificationId));
+    }
 }
@@ -0,0 +1,26 @@
+package com.banking.notification.dto;
+
+import com.banking.notification.entity.NotificationChannel;
+import com.banking.notification.entity.NotificationStatus;
+import com.banking.notification.entity.NotificationType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationStats {
+    private long total;
+    private Map<NotificationStatus, Long> byStatus;
+    private Map<NotificationType, Long> byType;
+    private Map<NotificationChannel, Long> byChannel;
+    // Notifications that moved into each status on this instance during the window
+    private Map<NotificationStatus, Long> lastMinute;
+    private Map<NotificationStatus, Long> lastHour;
+    private Map<NotificationStatus, Long> lastDay;
+    // When the counts were last corrected from the database
+    private LocalDateTime reconciledAt;
+}
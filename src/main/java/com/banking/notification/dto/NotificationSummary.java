@@ -0,0 +1,27 @@
+package com.banking.notification.dto;
+
+import com.banking.notification.entity.NotificationChannel;
+import com.banking.notification.entity.NotificationStatus;
+import com.banking.notification.entity.NotificationType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+// Query projection of notifications_log; leaves out the message body
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationSummary {
+    private Long id;
+    private String recipientEmail;
+    private NotificationType notificationType;
+    private NotificationChannel channel;
+    private NotificationStatus status;
+    private String subject;
+    private Long referenceId;
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime sentAt;
+    private LocalDateTime failedAt;
+}
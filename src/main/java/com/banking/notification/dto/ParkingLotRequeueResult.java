@@ -0,0 +1,18 @@
+package com.banking.notification.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ParkingLotRequeueResult {
+    private int requeued;
+    // Left in the parking lot because they came from another queue, their source is unknown or could not be routed to
+    private int skipped;
+    // Messages in the parking lot once the requeue finished
+    private long remaining;
+    private Map<String, Integer> requeuedByQueue;
+}
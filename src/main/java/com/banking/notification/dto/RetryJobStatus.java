@@ -0,0 +1,22 @@
+package com.banking.notification.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RetryJobStatus {
+    private String jobId;
+    private String state;
+    private int claimed;
+    private int sent;
+    private int failed;
+    // Failed again on their last allowed attempt and will not be retried
+    private int exhausted;
+    private LocalDateTime requestedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+}
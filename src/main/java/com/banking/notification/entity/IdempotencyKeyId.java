@@ -0,0 +1,16 @@
+package com.banking.notification.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.io.Serializable;
+
+// Identity of a delivered notification for deduplication: the same event on the same channel is sent once
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyKeyId implements Serializable {
+    private NotificationType notificationType;
+    private Long referenceId;
+    private NotificationChannel channel;
+}
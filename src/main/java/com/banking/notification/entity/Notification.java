@@ -4,17 +4,21 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDateTime;
 
 @Entity
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+// Partitioned by month on created_at; schema and indexes are managed by the Flyway migrations in db/migration
 @Table(name = "notifications_log")
 public class Notification {
 
+    // Pooled sequence instead of IDENTITY so inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notifications_log_seq")
+    @SequenceGenerator(name = "notifications_log_seq", sequenceName = "notifications_log_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -40,6 +44,12 @@ public class Notification {
     @Enumerated(EnumType.STRING)
     private NotificationStatus status;
 
+    // Ordinal so the claim query can ORDER BY priority
+    @Column(nullable = false)
+    @ColumnDefault("1")
+    @Enumerated(EnumType.ORDINAL)
+    private NotificationPriority priority;
+
     private String errorMessage;
 
     // For linking to transaction or account
@@ -52,11 +62,27 @@ public class Notification {
 
     private LocalDateTime failedAt;
 
+    // Set when a delivery worker claims the row; stale claims are picked up again
+    private LocalDateTime claimedAt;
+
+    // Failed delivery attempts so far; the retry scheduler picks FAILED rows up again at nextAttemptAt
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private int attemptCount;
+
+    private LocalDateTime nextAttemptAt;
+
     @PrePersist
     protected void onCreate() {
-        this.createdAt = LocalDateTime.now();
+        // Already set for notifications replayed from the journal, to the time their request was accepted
+        if (this.createdAt == null) {
+            this.createdAt = LocalDateTime.now();
+        }
         if (this.status == null) {
             this.status = NotificationStatus.PENDING;
         }
+        if (this.priority == null) {
+            this.priority = NotificationPriority.NORMAL;
+        }
     }
 }
@@ -0,0 +1,60 @@
+package com.banking.notification.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+import java.time.LocalDateTime;
+
+// Kept apart from notifications_log so the primary key can enforce uniqueness on its own
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "notification_idempotency_keys")
+@IdClass(IdempotencyKeyId.class)
+public class NotificationIdempotencyKey implements Persistable<IdempotencyKeyId> {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private NotificationType notificationType;
+
+    @Id
+    private Long referenceId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private NotificationChannel channel;
+
+    @Column(nullable = false)
+    private Long notificationId;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Transient
+    private boolean persisted;
+
+    public NotificationIdempotencyKey(Notification notification) {
+        this.notificationType = notification.getNotificationType();
+        this.referenceId = notification.getReferenceId();
+        this.channel = notification.getChannel();
+        this.notificationId = notification.getId();
+        this.createdAt = notification.getCreatedAt() != null ? notification.getCreatedAt() : LocalDateTime.now();
+    }
+
+    @Override
+    public IdempotencyKeyId getId() {
+        return new IdempotencyKeyId(notificationType, referenceId, channel);
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markPersisted() {
+        this.persisted = true;
+    }
+}
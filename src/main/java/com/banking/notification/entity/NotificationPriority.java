@@ -0,0 +1,8 @@
+package com.banking.notification.entity;
+
+// Stored by ordinal, so lower values are delivered first; append new values at the end only
+public enum NotificationPriority {
+    // Time-critical alerts with reserved delivery workers and send slots
+    HIGH,
+    NORMAL
+}
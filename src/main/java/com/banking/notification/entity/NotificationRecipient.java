@@ -0,0 +1,52 @@
+package com.banking.notification.entity;
+
+import com.banking.notification.crypto.EncryptedStringConverter;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+// Unmasked contact details needed by the delivery workers, encrypted at rest; notifications_log only keeps masked values
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "notification_recipients")
+public class NotificationRecipient implements Persistable<Long> {
+
+    @Id
+    private Long notificationId;
+
+    @Column(columnDefinition = "text")
+    @Convert(converter = EncryptedStringConverter.class)
+    private String email;
+
+    @Column(columnDefinition = "text")
+    @Convert(converter = EncryptedStringConverter.class)
+    private String phone;
+
+    // The id is assigned from the notification, so tell Spring Data to persist instead of merge
+    @Transient
+    private boolean persisted;
+
+    public NotificationRecipient(Long notificationId, String email, String phone) {
+        this.notificationId = notificationId;
+        this.email = email;
+        this.phone = phone;
+    }
+
+    @Override
+    public Long getId() {
+        return notificationId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markPersisted() {
+        this.persisted = true;
+    }
+}
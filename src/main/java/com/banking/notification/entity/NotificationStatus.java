@@ -2,7 +2,10 @@ package com.banking.notification.entity;
 
 public enum NotificationStatus {
     PENDING,
+    PROCESSING,
     SENT,
     FAILED,
-    RETRYING
+    RETRYING,
+    // Gave up after notification.retry.max-attempts failed deliveries
+    EXHAUSTED
 }
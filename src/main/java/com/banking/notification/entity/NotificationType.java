@@ -9,5 +9,7 @@ public enum NotificationType {
     TRANSACTION_ALERT,
     DEPOSIT_ALERT,
     WITHDRAWAL_ALERT,
-    TRANSFER_ALERT
+    TRANSFER_ALERT,
+    // Several account status changes of one customer merged into one message
+    ACCOUNT_STATUS_DIGEST
 }
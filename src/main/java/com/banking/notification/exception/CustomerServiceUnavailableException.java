@@ -0,0 +1,16 @@
+package com.banking.notification.exception;
+
+/**
+ * The customer service could not be asked: its circuit is open, the bulkhead is full, or the call
+ * timed out or failed on the server side. The request may succeed if tried again later.
+ */
+public class CustomerServiceUnavailableException extends RuntimeException {
+
+    public CustomerServiceUnavailableException(String message) {
+        super(message);
+    }
+
+    public CustomerServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,12 @@
+package com.banking.notification.exception;
+
+/**
+ * The channel rejected a notification in a way that will not change on another attempt, such as
+ * an SMTP 5xx reply or a malformed address. The notification is not retried.
+ */
+public class PermanentDeliveryException extends RuntimeException {
+
+    public PermanentDeliveryException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
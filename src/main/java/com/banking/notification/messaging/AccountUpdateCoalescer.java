@@ -0,0 +1,274 @@
+package com.banking.notification.messaging;
+
+import com.banking.notification.config.RabbitMQConfig;
+import com.banking.notification.dto.AccountUpdateEvent;
+import com.banking.notification.exception.CustomerServiceUnavailableException;
+import com.banking.notification.service.NotificationService;
+import com.rabbitmq.client.Channel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Holds account update events per customer for {@code window-ms} after the first one and then
+ * handles them together: only the latest event per account is kept, and several accounts become one
+ * digest notification. Messages are acknowledged only after their burst was handled, so nothing
+ * held here is lost if the instance dies; it is redelivered instead, which may repeat a notification.
+ * A burst that fails is handed to the {@link RetryTierRouter} message by message. One that fails
+ * because the customer service is unavailable is parked on account.update.retry.queue instead, up to
+ * {@code park-max-attempts} times per message before it goes to the parking lot.
+ * A window of 0 handles every event on the listener thread as before.
+ * <p>
+ * Held messages are acknowledged on the channel of the consumer that received them. Anything that
+ * stops the account update container or removes one of its consumers has to go through
+ * {@link #drainWhile}, or closing that channel redelivers messages whose notification is still to come.
+ */
+@Component
+@Slf4j
+public class AccountUpdateCoalescer {
+
+    public static final String PARK_ATTEMPT_HEADER = "x-customer-park-attempt";
+
+    private final NotificationService notificationService;
+    private final RetryTierRouter retryTierRouter;
+    private final long windowMs;
+    private final int maxParkAttempts;
+    private final Map<Long, List<Delivery>> bursts = new ConcurrentHashMap<>();
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final DistributionSummary eventsPerNotification;
+    private final Counter superseded;
+    // Holding and scheduled flushes take the read lock; draining takes the write lock to empty bursts
+    private final ReadWriteLock holdLock = new ReentrantReadWriteLock();
+    private final AtomicInteger drains = new AtomicInteger();
+    private volatile boolean closing;
+
+    public AccountUpdateCoalescer(NotificationService notificationService,
+                                  RetryTierRouter retryTierRouter,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${notification.coalescing.window-ms}") long windowMs,
+                                  @Value("${notification.coalescing.workers}") int workers,
+                                  @Value("${customer.service.park-max-attempts}") int maxParkAttempts) {
+        this.notificationService = notificationService;
+        this.retryTierRouter = retryTierRouter;
+        this.windowMs = windowMs;
+        this.maxParkAttempts = maxParkAttempts;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.scheduler = new ScheduledThreadPoolExecutor(workers, runnable -> {
+            Thread thread = new Thread(runnable, "account-update-coalescer-" + threadIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.eventsPerNotification = DistributionSummary.builder("notification.coalescing.events")
+                .description("Account update events absorbed by one account status notification")
+                .register(meterRegistry);
+        this.superseded = Counter.builder("notification.coalescing.superseded")
+                .description("Account update events dropped because a later event for the same account followed")
+                .register(meterRegistry);
+    }
+
+    public void submit(AccountUpdateEvent event, Message message, Channel channel) {
+        Delivery delivery = new Delivery(event, message, channel);
+        Long customerId = event.getCustomerId();
+        if (windowMs <= 0 || customerId == null || !hold(customerId, delivery)) {
+            handle(List.of(delivery));
+        }
+    }
+
+    // Runs before the listener containers stop, while their channels can still acknowledge
+    @EventListener(ContextClosedEvent.class)
+    public void flushAll() {
+        closing = true;
+        flushHeld();
+    }
+
+    /**
+     * Handles and acknowledges every held event, then runs the action while nothing is held: events
+     * arriving meanwhile are handled right away on the listener thread. Used to stop the account
+     * update container or take consumers away from it.
+     */
+    public void drainWhile(Runnable action) {
+        drains.incrementAndGet();
+        try {
+            flushHeld();
+            action.run();
+        } finally {
+            drains.decrementAndGet();
+        }
+    }
+
+    // False while closing or draining, when the event has to be handled right away
+    private boolean hold(Long customerId, Delivery delivery) {
+        Lock lock = holdLock.readLock();
+        lock.lock();
+        try {
+            if (closing || drains.get() > 0) {
+                return false;
+            }
+            bursts.compute(customerId, (id, burst) -> {
+                if (burst == null) {
+                    burst = new ArrayList<>();
+                    scheduleFlush(id);
+                }
+                burst.add(delivery);
+                return burst;
+            });
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Also waits for scheduled flushes that are still acknowledging
+    private void flushHeld() {
+        Lock lock = holdLock.writeLock();
+        lock.lock();
+        try {
+            for (Long customerId : List.copyOf(bursts.keySet())) {
+                flush(customerId);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(windowMs + 1_000, TimeUnit.MILLISECONDS);
+    }
+
+    private void scheduleFlush(Long customerId) {
+        try {
+            scheduler.schedule(() -> flushScheduled(customerId), windowMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down: the caller's burst is flushed by flushAll or redelivered
+            log.warn("Cannot schedule account update flush for customer {}", customerId);
+        }
+    }
+
+    private void flushScheduled(Long customerId) {
+        Lock lock = holdLock.readLock();
+        lock.lock();
+        try {
+            flush(customerId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flush(Long customerId) {
+        List<Delivery> burst = bursts.remove(customerId);
+        if (burst != null) {
+            handle(burst);
+        }
+    }
+
+    private void handle(List<Delivery> burst) {
+        // Later states of an account replace earlier ones, e.g. FROZEN then ACTIVE only reports ACTIVE
+        Map<Long, Delivery> latest = new LinkedHashMap<>();
+        for (Delivery delivery : burst) {
+            latest.remove(delivery.event().getAccountId());
+            latest.put(delivery.event().getAccountId(), delivery);
+        }
+        List<AccountUpdateEvent> events = latest.values().stream().map(Delivery::event).toList();
+        superseded.increment(burst.size() - events.size());
+        try {
+            if (notificationService.processAccountUpdateNotifications(events)) {
+                eventsPerNotification.record(burst.size());
+            }
+            ack(burst);
+        } catch (CustomerServiceUnavailableException e) {
+            // Park it rather than requeue, so the consumer is not spinning on a service that is down
+            log.warn("Parking {} account updates for customer {}: {}", events.size(), events.get(0).getCustomerId(), e.getMessage());
+            park(burst, latest.values(), e);
+        } catch (RuntimeException e) {
+            log.error("Failed to process {} account updates for customer {}", burst.size(), events.get(0).getCustomerId(), e);
+            retry(burst, e);
+        }
+    }
+
+    // Superseded events are acknowledged only once the latest one for their account is safely parked
+    private void park(List<Delivery> burst, Collection<Delivery> latest, RuntimeException cause) {
+        try {
+            for (Delivery delivery : latest) {
+                MessageProperties properties = delivery.message().getMessageProperties();
+                Number previous = properties.getHeader(PARK_ATTEMPT_HEADER);
+                int attempt = previous == null ? 1 : previous.intValue() + 1;
+                if (attempt > maxParkAttempts) {
+                    retryTierRouter.park(delivery.message(), cause);
+                } else {
+                    properties.setHeader(PARK_ATTEMPT_HEADER, attempt);
+                    retryTierRouter.publish(RabbitMQConfig.ACCOUNT_UPDATE_RETRY_QUEUE, delivery.message());
+                }
+            }
+        } catch (RuntimeException e) {
+            // The broker did not take every publish, so redeliver the whole burst; parked copies may repeat a notification
+            log.warn("Cannot park account updates, redelivering them: {}", e.getMessage());
+            nack(burst);
+            return;
+        }
+        ack(burst);
+    }
+
+    private void retry(List<Delivery> burst, RuntimeException cause) {
+        for (Delivery delivery : burst) {
+            try {
+                retryTierRouter.retryOrPark(delivery.message(), cause);
+                ack(List.of(delivery));
+            } catch (RuntimeException e) {
+                // The broker did not take the retry, so fall back to an immediate redelivery
+                nack(List.of(delivery));
+            }
+        }
+    }
+
+    private void ack(List<Delivery> burst) {
+        for (Delivery delivery : burst) {
+            try {
+                delivery.channel().basicAck(delivery.deliveryTag(), false);
+            } catch (IOException | RuntimeException e) {
+                // The channel closed meanwhile, so the broker redelivers the message
+                log.warn("Cannot acknowledge account update for account {}: {}", delivery.event().getAccountId(), e.getMessage());
+            }
+        }
+    }
+
+    private void nack(List<Delivery> burst) {
+        for (Delivery delivery : burst) {
+            try {
+                delivery.channel().basicNack(delivery.deliveryTag(), false, true);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Cannot reject account update for account {}: {}", delivery.event().getAccountId(), e.getMessage());
+            }
+        }
+    }
+
+    private record Delivery(AccountUpdateEvent event, Message message, Channel channel) {
+
+        private long deliveryTag() {
+            return message.getMessageProperties().getDeliveryTag();
+        }
+    }
+}
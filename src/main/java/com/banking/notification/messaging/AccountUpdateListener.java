@@ -2,9 +2,10 @@ package com.banking.notification.messaging;
 
 import com.banking.notification.config.RabbitMQConfig;
 import com.banking.notification.dto.AccountUpdateEvent;
-import com.banking.notification.service.NotificationService;
+import com.rabbitmq.client.Channel;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.stereotype.Component;
 
@@ -12,11 +13,17 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 @Slf4j
 public class AccountUpdateListener {
-    private final NotificationService notificationService;
+    private final AccountUpdateCoalescer accountUpdateCoalescer;
 
-    @RabbitListener(queues = "account.update.queue")
-    public void handleAccountUpdate(AccountUpdateEvent event) {
+    // Acknowledged by the coalescer once the event's burst has been handled. A message that cannot be
+    // converted is rejected by the container and dead-lettered to the parking lot
+    @RabbitListener(
+            id = "accountUpdateListener",
+            queues = RabbitMQConfig.ACCOUNT_UPDATE_QUEUE,
+            concurrency = "${notification.listener.account.concurrency}",
+            ackMode = "MANUAL")
+    public void handleAccountUpdate(AccountUpdateEvent event, Message message, Channel channel) {
         log.info("Received account update event: {}", event);
-        notificationService.processAccountUpdateNotification(event);
+        accountUpdateCoalescer.submit(event, message, channel);
     }
 }
@@ -0,0 +1,160 @@
+package com.banking.notification.messaging;
+
+import com.banking.notification.channel.ChannelRouter;
+import com.banking.notification.service.NotificationOutbox;
+import com.banking.notification.service.OutboxDeliveryWorker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Stops the notification listeners while delivery cannot keep up and starts them again once it
+ * has caught up, so unprocessed events wait in RabbitMQ instead of piling up in the outbox.
+ * <p>
+ * Delivery is saturated when the PENDING backlog reaches {@code pending-high-watermark}, or when a
+ * channel is being held at its rate limit while its lane is at least {@code utilization-high} full.
+ * Listeners resume only once the backlog is at or below {@code pending-low-watermark} and every lane
+ * is at or below {@code utilization-low}; the gap between the two thresholds keeps them from flapping.
+ * The account update listener is stopped only after the {@link AccountUpdateCoalescer} handed off
+ * what it holds, since stopping closes the channels those messages would be acknowledged on.
+ * Pausing and resuming go through the {@link ListenerContainerCoordinator}, so listener scaling never
+ * restarts or resizes a container in between.
+ */
+@Component
+@ConditionalOnProperty(name = "notification.backpressure.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class BackpressureController {
+
+    // Listeners that create notifications; the customer update listener only evicts cache entries
+    private static final String ACCOUNT_LISTENER_ID = "accountUpdateListener";
+    private static final List<String> LISTENER_IDS = List.of("transactionNotificationListener", ACCOUNT_LISTENER_ID);
+
+    private final RabbitListenerEndpointRegistry listenerRegistry;
+    private final NotificationOutbox outbox;
+    private final OutboxDeliveryWorker deliveryWorker;
+    private final ChannelRouter channelRouter;
+    private final AccountUpdateCoalescer accountUpdateCoalescer;
+    private final ListenerContainerCoordinator containerCoordinator;
+    private final long checkIntervalMs;
+    private final long pendingHighWatermark;
+    private final long pendingLowWatermark;
+    private final double utilizationHigh;
+    private final double utilizationLow;
+    private final Counter pauses;
+    private final Timer pausedTime;
+    private final ScheduledExecutorService monitor;
+    private volatile boolean paused;
+    private long pausedAt;
+
+    public BackpressureController(RabbitListenerEndpointRegistry listenerRegistry,
+                                  NotificationOutbox outbox,
+                                  OutboxDeliveryWorker deliveryWorker,
+                                  ChannelRouter channelRouter,
+                                  AccountUpdateCoalescer accountUpdateCoalescer,
+                                  ListenerContainerCoordinator containerCoordinator,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${notification.backpressure.check-interval-ms}") long checkIntervalMs,
+                                  @Value("${notification.backpressure.pending-high-watermark}") long pendingHighWatermark,
+                                  @Value("${notification.backpressure.pending-low-watermark}") long pendingLowWatermark,
+                                  @Value("${notification.backpressure.utilization-high}") double utilizationHigh,
+                                  @Value("${notification.backpressure.utilization-low}") double utilizationLow) {
+        this.listenerRegistry = listenerRegistry;
+        this.outbox = outbox;
+        this.deliveryWorker = deliveryWorker;
+        this.channelRouter = channelRouter;
+        this.accountUpdateCoalescer = accountUpdateCoalescer;
+        this.containerCoordinator = containerCoordinator;
+        this.checkIntervalMs = checkIntervalMs;
+        this.pendingHighWatermark = pendingHighWatermark;
+        this.pendingLowWatermark = pendingLowWatermark;
+        this.utilizationHigh = utilizationHigh;
+        this.utilizationLow = utilizationLow;
+        this.pauses = Counter.builder("notification.backpressure.pauses")
+                .description("Times the notification listeners were stopped because delivery was saturated")
+                .register(meterRegistry);
+        this.pausedTime = Timer.builder("notification.backpressure.paused.duration")
+                .description("How long the notification listeners stayed stopped")
+                .register(meterRegistry);
+        Gauge.builder("notification.backpressure.paused", this, controller -> controller.paused ? 1 : 0)
+                .description("1 while the notification listeners are stopped for backpressure")
+                .register(meterRegistry);
+        this.monitor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "backpressure-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        monitor.scheduleWithFixedDelay(this::check, checkIntervalMs, checkIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        monitor.shutdownNow();
+    }
+
+    void check() {
+        try {
+            long pending = outbox.countPending();
+            double utilization = deliveryWorker.maxUtilization();
+            if (!paused && isSaturated(pending, utilization)) {
+                pause(pending, utilization);
+            } else if (paused && pending <= pendingLowWatermark && utilization <= utilizationLow) {
+                resume(pending, utilization);
+            }
+        } catch (RuntimeException e) {
+            log.error("Backpressure check failed", e);
+        }
+    }
+
+    private boolean isSaturated(long pending, double utilization) {
+        return pending >= pendingHighWatermark || (utilization >= utilizationHigh && channelRouter.isRateLimited());
+    }
+
+    private void pause(long pending, double utilization) {
+        log.warn("Pausing notification listeners: {} pending, lane utilization {}", pending, utilization);
+        // stop() lets in-progress deliveries finish and returns unacked prefetched messages to the queue
+        containerCoordinator.pause(() -> forEachContainer((id, container) -> {
+            if (id.equals(ACCOUNT_LISTENER_ID)) {
+                accountUpdateCoalescer.drainWhile(container::stop);
+            } else {
+                container.stop();
+            }
+        }));
+        paused = true;
+        pausedAt = System.nanoTime();
+        pauses.increment();
+    }
+
+    private void resume(long pending, double utilization) {
+        log.info("Resuming notification listeners: {} pending, lane utilization {}", pending, utilization);
+        containerCoordinator.resume(() -> forEachContainer((id, container) -> container.start()));
+        paused = false;
+        pausedTime.record(System.nanoTime() - pausedAt, TimeUnit.NANOSECONDS);
+    }
+
+    private void forEachContainer(BiConsumer<String, MessageListenerContainer> action) {
+        for (String id : LISTENER_IDS) {
+            MessageListenerContainer container = listenerRegistry.getListenerContainer(id);
+            if (container != null) {
+                action.accept(id, container);
+            }
+        }
+    }
+}
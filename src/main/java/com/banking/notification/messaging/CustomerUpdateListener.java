@@ -0,0 +1,26 @@
+package com.banking.notification.messaging;
+
+import com.banking.notification.dto.CustomerUpdatedEvent;
+import com.banking.notification.service.CustomerDetailsCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerUpdateListener {
+    private final CustomerDetailsCache customerDetailsCache;
+
+    // Each instance listens on its own anonymous queue, so every cached copy is dropped
+    @RabbitListener(queues = "#{customerUpdateQueue.name}")
+    public void handleCustomerUpdate(CustomerUpdatedEvent event) {
+        log.info("Received customer updated event for customerId {}", event.getCustomerId());
+        if (event.getCustomerId() == null) {
+            customerDetailsCache.invalidateAll();
+        } else {
+            customerDetailsCache.invalidate(event.getCustomerId());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.banking.notification.messaging;
+
+import org.springframework.stereotype.Component;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serializes changes to the notification listener containers between the
+ * {@link BackpressureController}, which stops and starts them, and the
+ * {@link ListenerScalingController}, which resizes and restarts them. Without it the scaler could
+ * check that a container is running, lose the race to a pause, and then restart the container
+ * backpressure had just stopped.
+ */
+@Component
+public class ListenerContainerCoordinator {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile boolean paused;
+
+    /**
+     * Runs {@code stop} and marks the listeners paused, so scaling leaves them alone until {@link #resume}.
+     */
+    public void pause(Runnable stop) {
+        lock.lock();
+        try {
+            stop.run();
+            paused = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void resume(Runnable start) {
+        lock.lock();
+        try {
+            start.run();
+            paused = false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs the action unless the listeners are paused for backpressure; no pause or resume happens meanwhile.
+     */
+    public boolean runUnlessPaused(Runnable action) {
+        lock.lock();
+        try {
+            if (paused) {
+                return false;
+            }
+            action.run();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs the action with no pause or resume happening meanwhile, whether or not the listeners are paused.
+     */
+    public void runExclusively(Runnable action) {
+        lock.lock();
+        try {
+            action.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package com.banking.notification.messaging;
+
+import com.banking.notification.service.MetricsService;
+import com.banking.notification.service.OutboxDeliveryWorker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Sizes the notification listener containers to their backlog. Every {@code check-interval-ms} it
+ * reads each queue's depth from the broker, the outbox lane utilization and the p99 channel send
+ * latency. A container whose queue holds at least {@code scale-up-backlog} messages per consumer
+ * gets twice the consumers, up to {@code max-consumers}, as long as delivery is healthy: p99 at
+ * or below {@code latency-ceiling-ms} and utilization below {@code utilization-ceiling}. It loses one
+ * consumer once the backlog stayed at or below {@code scale-down-backlog} for
+ * {@code scale-down-checks} checks in a row, or as soon as delivery is unhealthy. No container
+ * changes more than once per {@code cooldown-ms}. While the {@link BackpressureController} has the
+ * listeners paused no check runs, and every resize or restart goes through the
+ * {@link ListenerContainerCoordinator} so a pause cannot slip in between the running check and the change.
+ * <p>
+ * A consumer keeps the prefetch it was started with, so prefetch only changes together with added
+ * consumers: they start with twice the previous prefetch, up to {@code max-prefetch}. Decisions,
+ * logs and gauges never report a prefetch that no consumer uses. Prefetch stays at or above
+ * {@code min-prefetch}, the batch size of a batch listener and, for the account update listener,
+ * {@code coalescing.peak-rate-per-second} events over {@code coalescing.window-ms}, which the
+ * coalescer keeps unacknowledged while it waits out its window. If these bounds change the
+ * configured prefetch, the container is restarted once at startup so its consumers pick it up.
+ * Consumers are taken away from the
+ * account update listener only while the {@link AccountUpdateCoalescer} is drained, because a
+ * removed consumer's channel closes and would redeliver the updates the coalescer still holds.
+ */
+@Component
+@ConditionalOnProperty(name = "notification.scaling.enabled", havingValue = "true")
+@Slf4j
+public class ListenerScalingController {
+
+    private static final String ACCOUNT_LISTENER_ID = "accountUpdateListener";
+    private static final List<String> LISTENER_IDS = List.of("transactionNotificationListener", ACCOUNT_LISTENER_ID);
+    private static final long CONSUMER_STOP_TIMEOUT_MS = 10_000;
+
+    private final RabbitListenerEndpointRegistry listenerRegistry;
+    private final AmqpAdmin amqpAdmin;
+    private final OutboxDeliveryWorker deliveryWorker;
+    private final AccountUpdateCoalescer accountUpdateCoalescer;
+    private final ListenerContainerCoordinator containerCoordinator;
+    private final MetricsService metricsService;
+    private final MeterRegistry meterRegistry;
+    private final long checkIntervalMs;
+    private final int minConsumers;
+    private final int maxConsumers;
+    private final int minPrefetch;
+    private final int maxPrefetch;
+    private final int initialPrefetch;
+    private final long scaleUpBacklog;
+    private final long scaleDownBacklog;
+    private final int scaleDownChecks;
+    private final double latencyCeilingMs;
+    private final double utilizationCeiling;
+    private final long cooldownNanos;
+    private final int batchSize;
+    private final int coalescingHeld;
+    private final List<ScaledListener> listeners = new ArrayList<>();
+    private final ScheduledExecutorService monitor;
+
+    public ListenerScalingController(RabbitListenerEndpointRegistry listenerRegistry,
+                                     AmqpAdmin amqpAdmin,
+                                     OutboxDeliveryWorker deliveryWorker,
+                                     AccountUpdateCoalescer accountUpdateCoalescer,
+                                     ListenerContainerCoordinator containerCoordinator,
+                                     MetricsService metricsService,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${notification.scaling.check-interval-ms}") long checkIntervalMs,
+                                     @Value("${notification.scaling.min-consumers}") int minConsumers,
+                                     @Value("${notification.scaling.max-consumers}") int maxConsumers,
+                                     @Value("${notification.scaling.min-prefetch}") int minPrefetch,
+                                     @Value("${notification.scaling.max-prefetch}") int maxPrefetch,
+                                     @Value("${spring.rabbitmq.listener.simple.prefetch:250}") int initialPrefetch,
+                                     @Value("${notification.scaling.scale-up-backlog}") long scaleUpBacklog,
+                                     @Value("${notification.scaling.scale-down-backlog}") long scaleDownBacklog,
+                                     @Value("${notification.scaling.scale-down-checks}") int scaleDownChecks,
+                                     @Value("${notification.scaling.latency-ceiling-ms}") double latencyCeilingMs,
+                                     @Value("${notification.scaling.utilization-ceiling}") double utilizationCeiling,
+                                     @Value("${notification.scaling.cooldown-ms}") long cooldownMs,
+                                     @Value("${notification.listener.transaction.batch.enabled}") boolean batchEnabled,
+                                     @Value("${notification.listener.transaction.batch.size}") int batchSize,
+                                     @Value("${notification.coalescing.window-ms}") long coalescingWindowMs,
+                                     @Value("${notification.coalescing.peak-rate-per-second}") double coalescingPeakRate) {
+        this.listenerRegistry = listenerRegistry;
+        this.amqpAdmin = amqpAdmin;
+        this.deliveryWorker = deliveryWorker;
+        this.accountUpdateCoalescer = accountUpdateCoalescer;
+        this.containerCoordinator = containerCoordinator;
+        this.metricsService = metricsService;
+        this.meterRegistry = meterRegistry;
+        this.checkIntervalMs = checkIntervalMs;
+        this.minConsumers = minConsumers;
+        this.maxConsumers = maxConsumers;
+        this.minPrefetch = minPrefetch;
+        this.maxPrefetch = maxPrefetch;
+        this.initialPrefetch = initialPrefetch;
+        this.scaleUpBacklog = scaleUpBacklog;
+        this.scaleDownBacklog = scaleDownBacklog;
+        this.scaleDownChecks = scaleDownChecks;
+        this.latencyCeilingMs = latencyCeilingMs;
+        this.utilizationCeiling = utilizationCeiling;
+        this.cooldownNanos = TimeUnit.MILLISECONDS.toNanos(cooldownMs);
+        // A batch consumer with less prefetch than its batch size never fills a batch
+        this.batchSize = batchEnabled ? batchSize : 0;
+        // Below this the account consumers stall until the coalescer's windows close
+        this.coalescingHeld = (int) Math.ceil(coalescingPeakRate * Math.max(0, coalescingWindowMs) / 1000.0);
+        this.monitor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "listener-scaling");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Containers are registered once the context has refreshed
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        for (String id : LISTENER_IDS) {
+            if (listenerRegistry.getListenerContainer(id) instanceof SimpleMessageListenerContainer container) {
+                int floor = Math.max(minPrefetch, id.equals(ACCOUNT_LISTENER_ID) ? coalescingHeld : batchSize);
+                ScaledListener listener = new ScaledListener(id, container, floor);
+                int active = container.getActiveConsumerCount();
+                listener.consumers = clamp(active, minConsumers, maxConsumers);
+                listener.prefetch = clamp(initialPrefetch, floor, Math.max(floor, maxPrefetch));
+                containerCoordinator.runExclusively(() -> {
+                    apply(listener, active);
+                    if (listener.prefetch != initialPrefetch && container.isRunning()) {
+                        restart(listener);
+                    }
+                });
+                register(listener);
+                listeners.add(listener);
+            }
+        }
+        monitor.scheduleWithFixedDelay(this::check, checkIntervalMs, checkIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        monitor.shutdownNow();
+    }
+
+    void check() {
+        try {
+            double latencyP99Ms = metricsService.maxDeliveryLatencyP99Millis();
+            double utilization = deliveryWorker.maxUtilization();
+            boolean healthy = latencyP99Ms <= latencyCeilingMs && utilization < utilizationCeiling;
+            for (ScaledListener listener : listeners) {
+                boolean checked = containerCoordinator.runUnlessPaused(() -> {
+                    if (listener.container.isRunning()) {
+                        check(listener, healthy, latencyP99Ms, utilization);
+                    }
+                });
+                if (!checked) {
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Listener scaling check failed", e);
+        }
+    }
+
+    private void check(ScaledListener listener, boolean healthy, double latencyP99Ms, double utilization) {
+        QueueInformation queue = amqpAdmin.getQueueInfo(listener.queue);
+        if (queue == null) {
+            return;
+        }
+        long depth = queue.getMessageCount();
+        long backlogPerConsumer = depth / listener.consumers;
+        listener.quietChecks = backlogPerConsumer <= scaleDownBacklog ? listener.quietChecks + 1 : 0;
+        if (System.nanoTime() - listener.changedAt < cooldownNanos) {
+            return;
+        }
+        int consumers = listener.consumers;
+        int prefetch = listener.prefetch;
+        String direction;
+        // Prefetch only changes with added consumers; running ones would keep their old value
+        if (healthy && backlogPerConsumer >= scaleUpBacklog && consumers < maxConsumers) {
+            direction = "up";
+            consumers = Math.min(maxConsumers, consumers * 2);
+            prefetch = Math.max(listener.prefetchFloor, Math.min(maxPrefetch, prefetch * 2));
+        } else if ((!healthy || listener.quietChecks >= scaleDownChecks) && consumers > minConsumers) {
+            direction = "down";
+            consumers--;
+        } else {
+            return;
+        }
+        log.info("Listener scaling decision {} {} {} {} {} {} {} {} {}",
+                kv("listener", listener.id), kv("direction", direction),
+                kv("consumersBefore", listener.consumers), kv("consumers", consumers),
+                kv("prefetchBefore", listener.prefetch), kv("prefetch", prefetch),
+                kv("queueDepth", depth), kv("latencyP99Ms", latencyP99Ms), kv("utilization", utilization));
+        int previous = listener.consumers;
+        listener.consumers = consumers;
+        listener.prefetch = prefetch;
+        listener.changedAt = System.nanoTime();
+        listener.quietChecks = 0;
+        apply(listener, previous);
+        (direction.equals("up") ? listener.scaledUp : listener.scaledDown).increment();
+    }
+
+    private void apply(ScaledListener listener, int previousConsumers) {
+        if (listener.id.equals(ACCOUNT_LISTENER_ID) && listener.consumers < previousConsumers) {
+            accountUpdateCoalescer.drainWhile(() -> {
+                resize(listener, previousConsumers);
+                awaitConsumers(listener);
+            });
+        } else {
+            resize(listener, previousConsumers);
+        }
+    }
+
+    private void resize(ScaledListener listener, int previousConsumers) {
+        SimpleMessageListenerContainer container = listener.container;
+        container.setPrefetchCount(listener.prefetch);
+        // The maximum has to be raised first and lowered last, or the container rejects the new count
+        if (listener.consumers >= previousConsumers) {
+            container.setMaxConcurrentConsumers(listener.consumers);
+            container.setConcurrentConsumers(listener.consumers);
+        } else {
+            container.setConcurrentConsumers(listener.consumers);
+            container.setMaxConcurrentConsumers(listener.consumers);
+        }
+    }
+
+    // Stopping returns unacknowledged messages to the queue; the restarted consumers get the new prefetch
+    private void restart(ScaledListener listener) {
+        log.info("Restarting listener {} to apply prefetch {}", listener.id, listener.prefetch);
+        Runnable restart = () -> {
+            listener.container.stop();
+            listener.container.start();
+        };
+        if (listener.id.equals(ACCOUNT_LISTENER_ID)) {
+            accountUpdateCoalescer.drainWhile(restart);
+        } else {
+            restart.run();
+        }
+    }
+
+    // Removed consumers finish their current delivery and close their channel asynchronously
+    private void awaitConsumers(ScaledListener listener) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(CONSUMER_STOP_TIMEOUT_MS);
+        while (listener.container.getActiveConsumerCount() > listener.consumers && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void register(ScaledListener listener) {
+        Gauge.builder("notification.scaling.consumers", listener, l -> l.consumers)
+                .tag("listener", listener.id)
+                .description("Consumers the scaling controller assigned to the listener")
+                .register(meterRegistry);
+        Gauge.builder("notification.scaling.prefetch", listener, l -> l.prefetch)
+                .tag("listener", listener.id)
+                .description("Prefetch of the consumers the scaling controller started most recently")
+                .register(meterRegistry);
+        listener.scaledUp = decisions(listener.id, "up");
+        listener.scaledDown = decisions(listener.id, "down");
+    }
+
+    private Counter decisions(String id, String direction) {
+        return Counter.builder("notification.scaling.decisions")
+                .tag("listener", id)
+                .tag("direction", direction)
+                .description("Consumer and prefetch changes made by the scaling controller")
+                .register(meterRegistry);
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    private static final class ScaledListener {
+
+        private final String id;
+        private final SimpleMessageListenerContainer container;
+        private final String queue;
+        private final int prefetchFloor;
+        private volatile int consumers;
+        private volatile int prefetch;
+        private long changedAt;
+        private int quietChecks;
+        private Counter scaledUp;
+        private Counter scaledDown;
+
+        private ScaledListener(String id, SimpleMessageListenerContainer container, int prefetchFloor) {
+            this.id = id;
+            this.container = container;
+            this.queue = container.getQueueNames()[0];
+            this.prefetchFloor = prefetchFloor;
+            this.changedAt = System.nanoTime();
+        }
+    }
+}
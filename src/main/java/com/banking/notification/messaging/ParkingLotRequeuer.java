@@ -0,0 +1,197 @@
+package com.banking.notification.messaging;
+
+import com.banking.notification.config.RabbitMQConfig;
+import com.banking.notification.dto.ParkingLotRequeueResult;
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Connection;
+import com.rabbitmq.client.GetResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Moves parked messages back onto the queue they failed on, in batches of {@code batch-size} at no
+ * more than {@code rate-per-second}, so a large parking lot does not flood the consumers at once.
+ * Each batch is published with publisher confirms and only then acknowledged in the parking lot,
+ * so a message is never lost between the two queues. Publishes are mandatory: one the broker cannot
+ * route, e.g. because its source queue was deleted, stays in the parking lot and counts as skipped.
+ * Requeued messages start over at retry tier 1.
+ */
+@Component
+@Slf4j
+public class ParkingLotRequeuer {
+
+    private final CachingConnectionFactory connectionFactory;
+    private final int batchSize;
+    private final int ratePerSecond;
+    private final int maxPerRequest;
+    private final long confirmTimeoutMs;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public ParkingLotRequeuer(CachingConnectionFactory connectionFactory,
+                              @Value("${notification.messaging.parking-lot.requeue.batch-size}") int batchSize,
+                              @Value("${notification.messaging.parking-lot.requeue.rate-per-second}") int ratePerSecond,
+                              @Value("${notification.messaging.parking-lot.requeue.max-per-request}") int maxPerRequest,
+                              @Value("${notification.messaging.parking-lot.requeue.confirm-timeout-ms}") long confirmTimeoutMs) {
+        this.connectionFactory = connectionFactory;
+        this.batchSize = batchSize;
+        this.ratePerSecond = ratePerSecond;
+        this.maxPerRequest = maxPerRequest;
+        this.confirmTimeoutMs = confirmTimeoutMs;
+    }
+
+    /**
+     * Requeues up to {@code limit} parked messages, optionally only those from {@code sourceQueue}.
+     * Returns empty if another requeue is still running.
+     */
+    public Optional<ParkingLotRequeueResult> requeue(String sourceQueue, int limit) {
+        if (sourceQueue != null && !RabbitMQConfig.RETRYABLE_QUEUES.contains(sourceQueue)) {
+            throw new IllegalArgumentException("Unknown source queue: " + sourceQueue);
+        }
+        if (!lock.tryLock()) {
+            return Optional.empty();
+        }
+        // A dedicated connection, so no cached channel is left in confirm mode
+        try (Connection connection = connectionFactory.getRabbitConnectionFactory().newConnection("parking-lot-requeue");
+             Channel channel = connection.createChannel()) {
+            channel.confirmSelect();
+            Set<String> unroutable = ConcurrentHashMap.newKeySet();
+            channel.addReturnListener(returned -> unroutable.add(returned.getRoutingKey()));
+            return Optional.of(requeue(channel, unroutable, sourceQueue, Math.max(0, Math.min(limit, maxPerRequest))));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to requeue parked messages", e);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Failed to requeue parked messages", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ParkingLotRequeueResult requeue(Channel channel, Set<String> unroutable, String sourceQueue, int limit)
+            throws IOException, TimeoutException {
+        Map<String, Integer> requeuedByQueue = new TreeMap<>();
+        List<Long> skippedTags = new ArrayList<>();
+        int requeued = 0;
+        long remaining = channel.queueDeclarePassive(RabbitMQConfig.PARKING_LOT_QUEUE).getMessageCount();
+        long minBatchNanos = ratePerSecond > 0 ? 1_000_000_000L * batchSize / ratePerSecond : 0;
+        while (requeued < limit && remaining > 0) {
+            long start = System.nanoTime();
+            Map<Long, String> published = new LinkedHashMap<>();
+            GetResponse response;
+            while (published.size() < Math.min(batchSize, limit - requeued)
+                    && (response = channel.basicGet(RabbitMQConfig.PARKING_LOT_QUEUE, false)) != null) {
+                remaining = response.getMessageCount();
+                String target = sourceOf(response.getProps());
+                if (target == null || (sourceQueue != null && !sourceQueue.equals(target))) {
+                    // Held unacknowledged until the channel closes, so they are not fetched again meanwhile
+                    skippedTags.add(response.getEnvelope().getDeliveryTag());
+                } else {
+                    channel.basicPublish("", target, true, restart(response.getProps()), response.getBody());
+                    published.put(response.getEnvelope().getDeliveryTag(), target);
+                }
+                if (remaining == 0) {
+                    break;
+                }
+            }
+            if (published.isEmpty()) {
+                break;
+            }
+            // The broker sends a return before the confirm of the same publish
+            channel.waitForConfirmsOrDie(confirmTimeoutMs);
+            List<Long> publishedTags = new ArrayList<>();
+            published.forEach((tag, target) -> {
+                if (unroutable.contains(target)) {
+                    skippedTags.add(tag);
+                } else {
+                    publishedTags.add(tag);
+                    requeuedByQueue.merge(target, 1, Integer::sum);
+                }
+            });
+            if (!unroutable.isEmpty()) {
+                log.error("Parked messages for {} could not be routed and stay in the parking lot", unroutable);
+                unroutable.clear();
+            }
+            if (!publishedTags.isEmpty()) {
+                ackPublished(channel, publishedTags, skippedTags);
+                requeued += publishedTags.size();
+                log.info("Requeued {} parked messages, {} left in the parking lot", requeued, remaining);
+            }
+            long pauseNanos = minBatchNanos - (System.nanoTime() - start);
+            if (pauseNanos > 0 && !sleep(pauseNanos)) {
+                break;
+            }
+        }
+        for (Long tag : skippedTags) {
+            channel.basicNack(tag, false, true);
+        }
+        remaining = channel.queueDeclarePassive(RabbitMQConfig.PARKING_LOT_QUEUE).getMessageCount();
+        return new ParkingLotRequeueResult(requeued, skippedTags.size(), remaining, requeuedByQueue);
+    }
+
+    private void ackPublished(Channel channel, List<Long> publishedTags, List<Long> skippedTags) throws IOException {
+        if (skippedTags.isEmpty()) {
+            channel.basicAck(publishedTags.get(publishedTags.size() - 1), true);
+            return;
+        }
+        // A multiple ack would also cover the skipped deliveries, so acknowledge one by one
+        for (Long tag : publishedTags) {
+            channel.basicAck(tag, false);
+        }
+    }
+
+    private String sourceOf(AMQP.BasicProperties properties) {
+        Map<String, Object> headers = properties.getHeaders();
+        if (headers == null) {
+            return null;
+        }
+        Object parkedFrom = headers.get(RetryTierRouter.PARKED_FROM_HEADER);
+        if (parkedFrom != null) {
+            String queue = parkedFrom.toString();
+            return RabbitMQConfig.RETRYABLE_QUEUES.contains(queue) ? queue : null;
+        }
+        // Rejected by the container and dead-lettered by the broker, which records the queue in x-death
+        if (headers.get("x-death") instanceof List<?> deaths) {
+            for (Object death : deaths) {
+                if (death instanceof Map<?, ?> entry && "rejected".equals(String.valueOf(entry.get("reason")))) {
+                    String queue = String.valueOf(entry.get("queue"));
+                    return RabbitMQConfig.RETRYABLE_QUEUES.contains(queue) ? queue : null;
+                }
+            }
+        }
+        return null;
+    }
+
+    private AMQP.BasicProperties restart(AMQP.BasicProperties properties) {
+        Map<String, Object> headers = new HashMap<>(properties.getHeaders());
+        headers.remove(RetryTierRouter.ATTEMPT_HEADER);
+        headers.remove(RetryTierRouter.PARKED_FROM_HEADER);
+        headers.remove(RetryTierRouter.ERROR_HEADER);
+        headers.remove(AccountUpdateCoalescer.PARK_ATTEMPT_HEADER);
+        return properties.builder().headers(headers).build();
+    }
+
+    private boolean sleep(long nanos) {
+        try {
+            Thread.sleep(nanos / 1_000_000, (int) (nanos % 1_000_000));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
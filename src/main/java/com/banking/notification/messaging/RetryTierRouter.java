@@ -0,0 +1,175 @@
+package com.banking.notification.messaging;
+
+import com.banking.notification.config.RabbitMQConfig;
+import com.rabbitmq.client.Channel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.AmqpTimeoutException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.api.RabbitListenerErrorHandler;
+import org.springframework.amqp.rabbit.support.ListenerExecutionFailedException;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Listener error handler that moves a failed message to the delay queue of its next retry tier
+ * instead of requeueing it or holding the consumer thread. The message expires there after the
+ * tier's {@code delays-ms} entry and RabbitMQ dead-letters it back onto its queue. After the last
+ * tier, or right away if it cannot be converted, the message goes to the parking lot with its
+ * source queue and the error in its headers. The failed delivery itself is acknowledged only after
+ * the broker confirmed the publish and routed it to a queue.
+ * <p>
+ * Publishes go through a template of their own on a confirm-enabled connection, so the shared
+ * template's channels stay out of confirm mode.
+ */
+@Component
+@Slf4j
+public class RetryTierRouter implements RabbitListenerErrorHandler {
+
+    public static final String ATTEMPT_HEADER = "x-notification-attempt";
+    public static final String PARKED_FROM_HEADER = "x-parked-from";
+    public static final String ERROR_HEADER = "x-parked-error";
+
+    private final CachingConnectionFactory confirmConnectionFactory;
+    private final RabbitTemplate rabbitTemplate;
+    private final long confirmTimeoutMs;
+    private final int tiers;
+    private final Map<String, Counter> retried = new HashMap<>();
+    private final Map<String, Counter> parked = new HashMap<>();
+
+    public RetryTierRouter(CachingConnectionFactory connectionFactory,
+                           MeterRegistry meterRegistry,
+                           @Value("${notification.messaging.retry.delays-ms}") int[] delaysMs,
+                           @Value("${notification.messaging.retry.confirm-timeout-ms}") long confirmTimeoutMs) {
+        // Not a bean: a second connection factory bean would replace the auto-configured one
+        this.confirmConnectionFactory = new CachingConnectionFactory(connectionFactory.getRabbitConnectionFactory());
+        confirmConnectionFactory.setConnectionNameStrategy(factory -> "notification-retry-router");
+        confirmConnectionFactory.setPublisherConfirmType(CachingConnectionFactory.ConfirmType.CORRELATED);
+        confirmConnectionFactory.setPublisherReturns(true);
+        this.rabbitTemplate = new RabbitTemplate(confirmConnectionFactory);
+        // Unroutable publishes come back as returns instead of being dropped
+        rabbitTemplate.setMandatory(true);
+        this.confirmTimeoutMs = confirmTimeoutMs;
+        this.tiers = delaysMs.length;
+        for (String queue : RabbitMQConfig.RETRYABLE_QUEUES) {
+            retried.put(queue, Counter.builder("notification.messaging.retried")
+                    .description("Failed messages sent to a retry delay queue")
+                    .tag("queue", queue)
+                    .register(meterRegistry));
+            parked.put(queue, Counter.builder("notification.messaging.parked")
+                    .description("Failed messages moved to the parking lot")
+                    .tag("queue", queue)
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    public Object handleError(Message amqpMessage, Channel channel, org.springframework.messaging.Message<?> message,
+                              ListenerExecutionFailedException exception) {
+        // A batch listener fails all of its messages together
+        Collection<Message> failed = exception.getFailedMessages().isEmpty()
+                ? List.of(amqpMessage) : exception.getFailedMessages();
+        Throwable cause = exception.getCause() != null ? exception.getCause() : exception;
+        for (Message failedMessage : failed) {
+            retryOrPark(failedMessage, cause);
+        }
+        return null;
+    }
+
+    @PreDestroy
+    public void stop() {
+        confirmConnectionFactory.destroy();
+    }
+
+    /**
+     * Publishes the message to its next retry tier or the parking lot and waits for the broker's
+     * confirm. Throws if the broker nacks or returns the message or does not confirm within
+     * {@code confirm-timeout-ms}, in which case the caller must not acknowledge the original delivery.
+     */
+    public void retryOrPark(Message message, Throwable cause) {
+        MessageProperties properties = message.getMessageProperties();
+        String queue = properties.getConsumerQueue();
+        Number previous = properties.getHeader(ATTEMPT_HEADER);
+        int attempt = previous == null ? 1 : previous.intValue() + 1;
+        if (attempt > tiers || !retried.containsKey(queue) || isPoison(cause)) {
+            park(message, cause);
+            return;
+        }
+        properties.setHeader(ATTEMPT_HEADER, attempt);
+        publish(RabbitMQConfig.retryQueue(queue, attempt), message);
+        count(retried, queue);
+        log.warn("Scheduled retry {} of {} for message from {}: {}", attempt, tiers, queue, cause.getMessage());
+    }
+
+    /**
+     * Moves the message straight to the parking lot, skipping any retry tiers left. Throws like
+     * {@link #retryOrPark} if the broker did not take it.
+     */
+    public void park(Message message, Throwable cause) {
+        MessageProperties properties = message.getMessageProperties();
+        String queue = properties.getConsumerQueue();
+        properties.setHeader(PARKED_FROM_HEADER, queue);
+        properties.setHeader(ERROR_HEADER, String.valueOf(cause.getMessage()));
+        publish(RabbitMQConfig.PARKING_LOT_QUEUE, message);
+        count(parked, queue);
+        log.error("Parked message from {}", queue, cause);
+    }
+
+    /**
+     * Publishes the message to the queue through the default exchange and waits for the broker's
+     * confirm. Throws if the broker nacks or returns it or does not confirm within {@code confirm-timeout-ms}.
+     */
+    public void publish(String queue, Message message) {
+        CorrelationData correlation = new CorrelationData();
+        rabbitTemplate.send("", queue, message, correlation);
+        CorrelationData.Confirm confirm;
+        try {
+            confirm = correlation.getFuture().get(confirmTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new AmqpTimeoutException("No publisher confirm from " + queue + " within " + confirmTimeoutMs + " ms", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AmqpException("Interrupted waiting for the publisher confirm from " + queue, e);
+        } catch (ExecutionException e) {
+            throw new AmqpException("Publish to " + queue + " failed", e.getCause());
+        }
+        if (!confirm.isAck()) {
+            throw new AmqpException("Broker rejected the publish to " + queue + ": " + confirm.getReason());
+        }
+        // Set before the confirm completes
+        if (correlation.getReturned() != null) {
+            throw new AmqpException("Publish to " + queue + " was unroutable: " + correlation.getReturned().getReplyText());
+        }
+    }
+
+    private boolean isPoison(Throwable cause) {
+        for (Throwable error = cause; error != null; error = error.getCause()) {
+            if (error instanceof MessageConversionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void count(Map<String, Counter> counters, String queue) {
+        Counter counter = counters.get(queue);
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+}
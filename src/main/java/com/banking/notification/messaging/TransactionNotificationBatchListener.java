@@ -0,0 +1,41 @@
+package com.banking.notification.messaging;
+
+import com.banking.notification.config.RabbitMQConfig;
+import com.banking.notification.dto.TransactionNotificationRequest;
+import com.banking.notification.service.NotificationJournal;
+import com.banking.notification.service.NotificationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "notification.listener.transaction.batch.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionNotificationBatchListener {
+
+    private final NotificationService notificationService;
+    private final NotificationJournal journal;
+
+    // Exceptions go to the retry tier router, which retries or parks each message of the batch
+    @RabbitListener(
+            id = "transactionNotificationListener",
+            queues = RabbitMQConfig.TRANSACTION_NOTIFICATION_QUEUE,
+            containerFactory = "batchRabbitListenerContainerFactory",
+            errorHandler = "retryTierRouter",
+            concurrency = "${notification.listener.transaction.concurrency}")
+    public void handleTransactionNotifications(List<TransactionNotificationRequest> requests) {
+        log.info("Received batch of {} transaction notification messages", requests.size());
+        if (journal.isEnabled()) {
+            // One fsync covers the whole batch; the replayer queues it once the database accepts writes
+            long sequence = journal.appendAll(requests);
+            log.info("Transaction notification batch journaled up to sequence {}", sequence);
+            return;
+        }
+        int queued = notificationService.sendTransactionNotifications(requests);
+        log.info("Transaction notification batch processed, {} notifications queued", queued);
+    }
+}
@@ -2,28 +2,39 @@ package com.banking.notification.messaging;
 
 import com.banking.notification.config.RabbitMQConfig;
 import com.banking.notification.dto.TransactionNotificationRequest;
+import com.banking.notification.service.NotificationJournal;
 import com.banking.notification.service.NotificationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
+import java.util.List;
 
 @Component
+@ConditionalOnProperty(name = "notification.listener.transaction.batch.enabled", havingValue = "false", matchIfMissing = true)
 @RequiredArgsConstructor
 @Slf4j
 public class TransactionNotificationListener {
 
     private final NotificationService notificationService;
+    private final NotificationJournal journal;
 
-    @RabbitListener(queues = RabbitMQConfig.TRANSACTION_NOTIFICATION_QUEUE)
+    // Exceptions go to the retry tier router, which schedules a delayed redelivery or parks the message
+    @RabbitListener(
+            id = "transactionNotificationListener",
+            queues = RabbitMQConfig.TRANSACTION_NOTIFICATION_QUEUE,
+            errorHandler = "retryTierRouter",
+            concurrency = "${notification.listener.transaction.concurrency}")
     public void handleTransactionNotification(TransactionNotificationRequest request) {
         log.info("Received transaction notification message: {}", request);
 
-        try {
-            notificationService.sendTransactionNotification(request);
-            log.info("Transaction notification processed successfully");
-        } catch (Exception e) {
-            log.error("Error processing transaction notification", e);
+        if (journal.isEnabled()) {
+            long sequence = journal.appendAll(List.of(request));
+            log.info("Transaction notification journaled at sequence {}", sequence);
+            return;
         }
+        notificationService.sendTransactionNotification(request);
+        log.info("Transaction notification processed successfully");
     }
 }
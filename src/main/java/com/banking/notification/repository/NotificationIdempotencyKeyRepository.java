@@ -0,0 +1,25 @@
+package com.banking.notification.repository;
+
+import com.banking.notification.entity.IdempotencyKeyId;
+import com.banking.notification.entity.NotificationIdempotencyKey;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+@Repository
+public interface NotificationIdempotencyKeyRepository extends JpaRepository<NotificationIdempotencyKey, IdempotencyKeyId> {
+
+    @Query("""
+            SELECT new com.banking.notification.entity.IdempotencyKeyId(k.notificationType, k.referenceId, k.channel)
+            FROM NotificationIdempotencyKey k
+            WHERE k.createdAt >= :since
+            """)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<IdempotencyKeyId> streamKeysCreatedSince(@Param("since") LocalDateTime since);
+}
@@ -0,0 +1,25 @@
+package com.banking.notification.repository;
+
+import com.banking.notification.dto.NotificationFilter;
+import com.banking.notification.dto.NotificationSummary;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Filtered notification queries returning {@link NotificationSummary} projections, newest first.
+ */
+public interface NotificationQueryRepository {
+
+    /**
+     * Keyset page: rows strictly after ({@code afterCreatedAt}, {@code afterId}) in
+     * (createdAt DESC, id DESC) order. Pass nulls for the first page.
+     */
+    List<NotificationSummary> findSummaries(NotificationFilter filter, LocalDateTime afterCreatedAt, Long afterId, int limit);
+
+    /**
+     * Streams every matching row through a server-side cursor. Must be consumed and closed
+     * inside a transaction.
+     */
+    Stream<NotificationSummary> streamSummaries(NotificationFilter filter);
+}
@@ -0,0 +1,98 @@
+package com.banking.notification.repository;
+
+import com.banking.notification.dto.NotificationFilter;
+import com.banking.notification.dto.NotificationSummary;
+import com.banking.notification.entity.Notification;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class NotificationQueryRepositoryImpl implements NotificationQueryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${notification.query.export-fetch-size}")
+    private int exportFetchSize;
+
+    @Override
+    public List<NotificationSummary> findSummaries(NotificationFilter filter, LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<NotificationSummary> query = cb.createQuery(NotificationSummary.class);
+        Root<Notification> root = query.from(Notification.class);
+        List<Predicate> predicates = filterPredicates(cb, root, filter);
+        if (afterCreatedAt != null && afterId != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(root.<LocalDateTime>get("createdAt"), afterCreatedAt),
+                    cb.and(cb.equal(root.get("createdAt"), afterCreatedAt), cb.lessThan(root.<Long>get("id"), afterId))
+            ));
+        }
+        select(cb, query, root, predicates);
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<NotificationSummary> streamSummaries(NotificationFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<NotificationSummary> query = cb.createQuery(NotificationSummary.class);
+        Root<Notification> root = query.from(Notification.class);
+        select(cb, query, root, filterPredicates(cb, root, filter));
+        // PostgreSQL only honours the fetch size inside a transaction; without it the driver buffers everything
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, exportFetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    private void select(CriteriaBuilder cb, CriteriaQuery<NotificationSummary> query, Root<Notification> root, List<Predicate> predicates) {
+        query.select(cb.construct(NotificationSummary.class,
+                        root.get("id"),
+                        root.get("recipientEmail"),
+                        root.get("notificationType"),
+                        root.get("channel"),
+                        root.get("status"),
+                        root.get("subject"),
+                        root.get("referenceId"),
+                        root.get("errorMessage"),
+                        root.get("createdAt"),
+                        root.get("sentAt"),
+                        root.get("failedAt")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(root.get("createdAt")), cb.desc(root.get("id")));
+    }
+
+    private List<Predicate> filterPredicates(CriteriaBuilder cb, Root<Notification> root, NotificationFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.getStatus() != null) {
+            predicates.add(cb.equal(root.get("status"), filter.getStatus()));
+        }
+        if (filter.getType() != null) {
+            predicates.add(cb.equal(root.get("notificationType"), filter.getType()));
+        }
+        if (filter.getChannel() != null) {
+            predicates.add(cb.equal(root.get("channel"), filter.getChannel()));
+        }
+        if (filter.getReferenceId() != null) {
+            predicates.add(cb.equal(root.get("referenceId"), filter.getReferenceId()));
+        }
+        if (filter.getFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.<LocalDateTime>get("createdAt"), filter.getFrom()));
+        }
+        if (filter.getTo() != null) {
+            predicates.add(cb.lessThan(root.<LocalDateTime>get("createdAt"), filter.getTo()));
+        }
+        return predicates;
+    }
+}
@@ -0,0 +1,9 @@
+package com.banking.notification.repository;
+
+import com.banking.notification.entity.NotificationRecipient;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface NotificationRecipientRepository extends JpaRepository<NotificationRecipient, Long> {
+}
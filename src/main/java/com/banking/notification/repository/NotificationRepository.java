@@ -3,12 +3,16 @@ package com.banking.notification.repository;
 import com.banking.notification.entity.Notification;
 import com.banking.notification.entity.NotificationStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface NotificationRepository extends JpaRepository<Notification, Long> {
+public interface NotificationRepository extends JpaRepository<Notification, Long>, NotificationQueryRepository {
 
     List<Notification> findByStatus(NotificationStatus status);
 
@@ -18,5 +22,94 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
 
     Long countByStatus(NotificationStatus status);
 
+    Long countByStatusAndCreatedAtAfter(NotificationStatus status, LocalDateTime createdAfter);
+
+    // One row of {status, type, channel, count} per combination; seeds and reconciles NotificationStatistics
+    @Query("SELECT n.status, n.notificationType, n.channel, COUNT(n) FROM Notification n GROUP BY n.status, n.notificationType, n.channel")
+    List<Object[]> countByStatusTypeAndChannel();
+
     List<Notification> findTop10ByOrderByCreatedAtDesc();
+
+    // Outbox queries below take a createdAfter bound so only the recent monthly partitions are scanned
+
+    // Outbox claim, most urgent first: rows locked by another instance are skipped rather than waited on
+    @Query(value = """
+            SELECT * FROM notifications_log
+            WHERE channel = :channel
+              AND priority <= :maxPriority
+              AND created_at > :createdAfter
+              AND (status = 'PENDING' OR (status = 'PROCESSING' AND claimed_at < :leaseExpiredBefore))
+            ORDER BY priority, id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<Notification> lockDeliverable(@Param("channel") String channel,
+                                       @Param("maxPriority") int maxPriority,
+                                       @Param("leaseExpiredBefore") LocalDateTime leaseExpiredBefore,
+                                       @Param("createdAfter") LocalDateTime createdAfter,
+                                       @Param("limit") int limit);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Notification n SET n.status = :status, n.claimedAt = :claimedAt WHERE n.id IN :ids AND n.createdAt > :createdAfter")
+    int markClaimed(@Param("ids") Collection<Long> ids,
+                    @Param("status") NotificationStatus status,
+                    @Param("claimedAt") LocalDateTime claimedAt,
+                    @Param("createdAfter") LocalDateTime createdAfter);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.status = :status, n.sentAt = :sentAt, n.errorMessage = null WHERE n.id IN :ids AND n.createdAt > :createdAfter")
+    int markSent(@Param("ids") Collection<Long> ids,
+                 @Param("status") NotificationStatus status,
+                 @Param("sentAt") LocalDateTime sentAt,
+                 @Param("createdAfter") LocalDateTime createdAfter);
+
+    // Retry claim: FAILED rows whose backoff has elapsed, plus RETRYING rows abandoned by a crashed instance
+    @Query(value = """
+            SELECT * FROM notifications_log
+            WHERE created_at > :createdAfter
+              AND ((status = 'FAILED' AND next_attempt_at <= :dueBefore)
+                OR (status = 'RETRYING' AND claimed_at < :leaseExpiredBefore))
+            ORDER BY priority, next_attempt_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<Notification> lockDueRetries(@Param("dueBefore") LocalDateTime dueBefore,
+                                      @Param("leaseExpiredBefore") LocalDateTime leaseExpiredBefore,
+                                      @Param("createdAfter") LocalDateTime createdAfter,
+                                      @Param("limit") int limit);
+
+    // Manual retry: every FAILED row that had failed before the job started, regardless of backoff
+    @Query(value = """
+            SELECT * FROM notifications_log
+            WHERE status = 'FAILED' AND failed_at <= :failedBefore AND created_at > :createdAfter
+            ORDER BY id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<Notification> lockFailedBefore(@Param("failedBefore") LocalDateTime failedBefore,
+                                        @Param("createdAfter") LocalDateTime createdAfter,
+                                        @Param("limit") int limit);
+
+    // Counts the attempt and schedules the next one with exponential backoff and equal jitter,
+    // or parks the row as EXHAUSTED once maxAttempts is reached. Right-hand sides see the old attempt_count.
+    @Modifying
+    @Query(value = """
+            UPDATE notifications_log
+            SET attempt_count = attempt_count + 1,
+                status = CASE WHEN attempt_count + 1 >= :maxAttempts THEN 'EXHAUSTED' ELSE 'FAILED' END,
+                error_message = :errorMessage,
+                failed_at = :failedAt,
+                next_attempt_at = CASE WHEN attempt_count + 1 >= :maxAttempts THEN NULL
+                    ELSE CAST(:failedAt AS timestamp) + make_interval(secs =>
+                        LEAST(:maxDelaySeconds, :baseDelaySeconds * power(2, attempt_count)) * (0.5 + random() * 0.5))
+                    END
+            WHERE id IN (:ids) AND created_at > :createdAfter
+            """, nativeQuery = true)
+    int markFailed(@Param("ids") Collection<Long> ids,
+                   @Param("errorMessage") String errorMessage,
+                   @Param("failedAt") LocalDateTime failedAt,
+                   @Param("maxAttempts") int maxAttempts,
+                   @Param("baseDelaySeconds") double baseDelaySeconds,
+                   @Param("maxDelaySeconds") double maxDelaySeconds,
+                   @Param("createdAfter") LocalDateTime createdAfter);
 }
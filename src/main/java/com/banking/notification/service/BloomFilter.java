@@ -0,0 +1,74 @@
+package com.banking.notification.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free Bloom filter over 64-bit hashes. Bits are only ever set, so concurrent
+ * {@link #put} calls need nothing more than a CAS per word. Bit positions use double
+ * hashing, which needs one good 64-bit hash per key rather than k independent ones.
+ */
+final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final AtomicLong insertions = new AtomicLong();
+
+    BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (optimalBits + 63) >>> 6));
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = wordCount * 64L;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    boolean mightContain(long hash) {
+        long second = secondHash(hash);
+        for (int i = 0; i < hashCount; i++) {
+            long index = Math.floorMod(hash + i * second, bitCount);
+            if ((words.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void put(long hash) {
+        long second = secondHash(hash);
+        for (int i = 0; i < hashCount; i++) {
+            long index = Math.floorMod(hash + i * second, bitCount);
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long current;
+            while (((current = words.get(word)) & mask) == 0) {
+                if (words.compareAndSet(word, current, current | mask)) {
+                    break;
+                }
+            }
+        }
+        insertions.incrementAndGet();
+    }
+
+    /**
+     * False-positive probability for the number of keys inserted so far, (1 - e^(-kn/m))^k.
+     */
+    double expectedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-hashCount * (double) insertions.get() / bitCount), hashCount);
+    }
+
+    static long mix(long value) {
+        // MurmurHash3 fmix64 finalizer
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    private static long secondHash(long hash) {
+        // Odd, so the probe sequence does not collapse onto a few bits
+        return mix(hash ^ 0x9e3779b97f4a7c15L) | 1;
+    }
+}
@@ -0,0 +1,134 @@
+package com.banking.notification.service;
+
+import com.banking.notification.service.CustomerServiceClient.CustomerDetails;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded in-process cache in front of {@link CustomerServiceClient}. Unknown customers are cached
+ * as empty results with a shorter TTL, and concurrent misses for the same customer wait on the
+ * lookup already in flight instead of issuing their own call. Misses for different customers are
+ * combined into bulk requests by {@link CustomerLookupBatcher}.
+ */
+@Service
+@Slf4j
+public class CustomerDetailsCache {
+
+    private final CustomerLookupBatcher customerLookupBatcher;
+    private final AsyncCache<Long, Optional<CustomerDetails>> cache;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalesced;
+    private final Counter evictions;
+
+    public CustomerDetailsCache(CustomerLookupBatcher customerLookupBatcher,
+                                MeterRegistry meterRegistry,
+                                @Value("${customer.cache.ttl-seconds}") long ttlSeconds,
+                                @Value("${customer.cache.negative-ttl-seconds}") long negativeTtlSeconds,
+                                @Value("${customer.cache.max-size}") long maxSize) {
+        this.customerLookupBatcher = customerLookupBatcher;
+        this.hits = requestCounter(meterRegistry, "hit");
+        this.misses = requestCounter(meterRegistry, "miss");
+        this.coalesced = requestCounter(meterRegistry, "coalesced");
+        this.evictions = Counter.builder("customer.cache.evictions")
+                .description("Customer details evicted for size or expiry")
+                .register(meterRegistry);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new CustomerExpiry(TimeUnit.SECONDS.toNanos(ttlSeconds), TimeUnit.SECONDS.toNanos(negativeTtlSeconds)))
+                .removalListener((Long key, Optional<CustomerDetails> value, RemovalCause cause) -> {
+                    if (cause.wasEvicted()) {
+                        evictions.increment();
+                    }
+                })
+                .buildAsync();
+        Gauge.builder("customer.cache.size", cache, c -> c.synchronous().estimatedSize())
+                .description("Customer details currently cached")
+                .register(meterRegistry);
+    }
+
+    public Optional<CustomerDetails> getCustomer(Long customerId) {
+        if (customerId == null) {
+            return Optional.empty();
+        }
+        CompletableFuture<Optional<CustomerDetails>> lookup = new CompletableFuture<>();
+        CompletableFuture<Optional<CustomerDetails>> existing = cache.asMap().putIfAbsent(customerId, lookup);
+        if (existing != null) {
+            if (existing.isDone()) {
+                hits.increment();
+            } else {
+                coalesced.increment();
+            }
+            return await(existing);
+        }
+
+        // This caller won the race; its lookup completes the entry for everyone waiting
+        misses.increment();
+        customerLookupBatcher.lookup(customerId).whenComplete((customer, error) -> {
+            if (error != null) {
+                // Failed futures are dropped by the cache, so the next caller retries
+                lookup.completeExceptionally(error);
+            } else {
+                lookup.complete(customer);
+            }
+        });
+        return await(lookup);
+    }
+
+    public void invalidate(Long customerId) {
+        cache.synchronous().invalidate(customerId);
+        log.debug("Invalidated cached details for customerId {}", customerId);
+    }
+
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    private Optional<CustomerDetails> await(CompletableFuture<Optional<CustomerDetails>> lookup) {
+        try {
+            return lookup.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("customer.cache.requests")
+                .tag("result", result)
+                .description("Customer details lookups by cache outcome")
+                .register(meterRegistry);
+    }
+
+    private record CustomerExpiry(long ttlNanos, long negativeTtlNanos) implements Expiry<Long, Optional<CustomerDetails>> {
+
+        @Override
+        public long expireAfterCreate(Long key, Optional<CustomerDetails> value, long currentTime) {
+            return value.isPresent() ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(Long key, Optional<CustomerDetails> value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long key, Optional<CustomerDetails> value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.banking.notification.service;
+
+import com.banking.notification.service.CustomerServiceClient.CustomerDetails;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Collects customer lookups that arrive within {@code window-ms} of the first one, up to
+ * {@code max-size} distinct ids, and resolves them with one bulk request. Each caller gets its own
+ * future, completed from the shared response; ids the service does not know complete empty.
+ * With batching disabled every lookup is a single GET on the caller's thread, and so is every
+ * lookup after the customer service answered the bulk request with 404, i.e. does not offer it.
+ * Lookups still pending when the batcher stops fail instead of waiting forever.
+ */
+@Component
+@Slf4j
+public class CustomerLookupBatcher {
+
+    private final CustomerServiceClient customerServiceClient;
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxSize;
+    private final BlockingQueue<PendingLookup> pending = new LinkedBlockingQueue<>();
+    private final ExecutorService senders;
+    private final DistributionSummary batchSize;
+    private Thread collector;
+    private volatile boolean running;
+    private volatile boolean bulkUnsupported;
+
+    public CustomerLookupBatcher(CustomerServiceClient customerServiceClient,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${customer.service.batch.enabled}") boolean enabled,
+                                 @Value("${customer.service.batch.window-ms}") long windowMs,
+                                 @Value("${customer.service.batch.max-size}") int maxSize,
+                                 @Value("${customer.service.batch.workers}") int workers) {
+        this.customerServiceClient = customerServiceClient;
+        this.enabled = enabled;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        this.maxSize = maxSize;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "customer-lookup-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.batchSize = DistributionSummary.builder("customer.lookup.batch.size")
+                .description("Customer ids resolved per bulk request")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        collector = new Thread(this::collect, "customer-lookup-batcher");
+        collector.setDaemon(true);
+        collector.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (collector != null) {
+            collector.interrupt();
+            collector.join(1_000);
+        }
+        senders.shutdown();
+        senders.awaitTermination(1, TimeUnit.SECONDS);
+        PendingLookup lookup;
+        while ((lookup = pending.poll()) != null) {
+            lookup.result.completeExceptionally(stopped());
+        }
+    }
+
+    public CompletableFuture<Optional<CustomerDetails>> lookup(Long customerId) {
+        if (!enabled || bulkUnsupported) {
+            return lookupOne(customerId);
+        }
+        if (!running) {
+            return CompletableFuture.failedFuture(stopped());
+        }
+        PendingLookup lookup = new PendingLookup(customerId, new CompletableFuture<>());
+        pending.add(lookup);
+        // stop() may have drained the queue between the check and the add
+        if (!running && pending.remove(lookup)) {
+            lookup.result.completeExceptionally(stopped());
+        }
+        return lookup.result;
+    }
+
+    private CompletableFuture<Optional<CustomerDetails>> lookupOne(Long customerId) {
+        try {
+            return CompletableFuture.completedFuture(Optional.ofNullable(customerServiceClient.fetchCustomerById(customerId)));
+        } catch (HttpClientErrorException.NotFound e) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void collect() {
+        Map<Long, List<CompletableFuture<Optional<CustomerDetails>>>> batch = new HashMap<>();
+        try {
+            while (running) {
+                PendingLookup first = pending.take();
+                add(batch, first);
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxSize) {
+                    PendingLookup next = pending.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    add(batch, next);
+                }
+                dispatch(batch);
+                batch = new HashMap<>();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // Stopped while collecting; this batch was never sent
+            fail(batch, stopped());
+        }
+    }
+
+    private void add(Map<Long, List<CompletableFuture<Optional<CustomerDetails>>>> batch, PendingLookup lookup) {
+        batch.computeIfAbsent(lookup.customerId, id -> new ArrayList<>(1)).add(lookup.result);
+    }
+
+    // The request runs on a sender thread so the next window starts collecting right away
+    private void dispatch(Map<Long, List<CompletableFuture<Optional<CustomerDetails>>>> batch) {
+        try {
+            senders.execute(() -> send(batch));
+        } catch (RejectedExecutionException e) {
+            fail(batch, e);
+        }
+    }
+
+    private void send(Map<Long, List<CompletableFuture<Optional<CustomerDetails>>>> batch) {
+        batchSize.record(batch.size());
+        List<CustomerDetails> customers;
+        try {
+            customers = customerServiceClient.fetchCustomersByIds(batch.keySet());
+        } catch (HttpClientErrorException.NotFound e) {
+            if (!bulkUnsupported) {
+                bulkUnsupported = true;
+                log.warn("Customer service has no bulk lookup endpoint, falling back to single lookups");
+            }
+            batch.forEach((customerId, callers) -> {
+                CompletableFuture<Optional<CustomerDetails>> result = lookupOne(customerId);
+                callers.forEach(caller -> result.whenComplete((customer, error) -> {
+                    if (error != null) {
+                        caller.completeExceptionally(error);
+                    } else {
+                        caller.complete(customer);
+                    }
+                }));
+            });
+            return;
+        } catch (RuntimeException e) {
+            log.warn("Bulk customer lookup for {} ids failed: {}", batch.size(), e.getMessage());
+            fail(batch, e);
+            return;
+        }
+        for (CustomerDetails customer : customers) {
+            List<CompletableFuture<Optional<CustomerDetails>>> callers = batch.remove(customer.getCustomerId());
+            if (callers != null) {
+                callers.forEach(caller -> caller.complete(Optional.of(customer)));
+            }
+        }
+        // Whatever is left was not returned, i.e. unknown to the customer service
+        batch.values().forEach(callers -> callers.forEach(caller -> caller.complete(Optional.empty())));
+    }
+
+    private void fail(Map<Long, List<CompletableFuture<Optional<CustomerDetails>>>> batch, Throwable error) {
+        batch.values().forEach(callers -> callers.forEach(caller -> caller.completeExceptionally(error)));
+    }
+
+    private static IllegalStateException stopped() {
+        return new IllegalStateException("Customer lookup batcher stopped");
+    }
+
+    private record PendingLookup(Long customerId, CompletableFuture<Optional<CustomerDetails>> result) {
+    }
+}
@@ -1,35 +1,181 @@
 package com.banking.notification.service;
 
+import com.banking.notification.exception.CustomerServiceUnavailableException;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
+/**
+ * Customer service calls go through a pooled HTTP client with connect, read and pool-lease
+ * timeouts, a bulkhead that caps concurrent calls, and a {@link CircuitBreaker} that fails fast
+ * while the service is down. Rejected and failed calls throw {@link CustomerServiceUnavailableException};
+ * 4xx answers are passed through unchanged and count as the service being healthy.
+ */
 @Service
+@Slf4j
 public class CustomerServiceClient {
-    @Value("${customer.service.base-url}")
-    private String customerServiceBaseUrl;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final String customerServiceBaseUrl;
+    private final CloseableHttpClient httpClient;
+    private final RestTemplate restTemplate;
+    private final MetricsService metricsService;
+    private final Semaphore bulkhead;
+    private final long bulkheadWaitMs;
+    private final CircuitBreaker circuitBreaker;
+    private final Counter succeeded;
+    private final Counter failed;
+    private final Counter circuitRejected;
+    private final Counter bulkheadRejected;
+
+    public CustomerServiceClient(MeterRegistry meterRegistry,
+                                 MetricsService metricsService,
+                                 @Value("${customer.service.base-url}") String customerServiceBaseUrl,
+                                 @Value("${customer.service.connect-timeout-ms}") long connectTimeoutMs,
+                                 @Value("${customer.service.read-timeout-ms}") long readTimeoutMs,
+                                 @Value("${customer.service.pool.max-connections}") int maxConnections,
+                                 @Value("${customer.service.pool.lease-timeout-ms}") long leaseTimeoutMs,
+                                 @Value("${customer.service.bulkhead.max-concurrent}") int maxConcurrent,
+                                 @Value("${customer.service.bulkhead.max-wait-ms}") long bulkheadWaitMs,
+                                 @Value("${customer.service.circuit.failure-threshold}") int failureThreshold,
+                                 @Value("${customer.service.circuit.open-ms}") long openMs) {
+        this.customerServiceBaseUrl = customerServiceBaseUrl;
+        this.metricsService = metricsService;
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(maxConnections)
+                        .setMaxConnPerRoute(maxConnections)
+                        .setDefaultConnectionConfig(ConnectionConfig.custom()
+                                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                                .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                                .setTimeToLive(TimeValue.ofMinutes(5))
+                                .build())
+                        .build())
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(leaseTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .evictIdleConnections(TimeValue.ofSeconds(30))
+                // The circuit breaker decides about retrying, not the HTTP client
+                .disableAutomaticRetries()
+                .build();
+        this.restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+        this.bulkhead = new Semaphore(maxConcurrent);
+        this.bulkheadWaitMs = bulkheadWaitMs;
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openMs);
+        this.succeeded = callCounter(meterRegistry, "success");
+        this.failed = callCounter(meterRegistry, "failure");
+        this.circuitRejected = callCounter(meterRegistry, "circuit-open");
+        this.bulkheadRejected = callCounter(meterRegistry, "bulkhead-full");
+        for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+            Gauge.builder("customer.client.circuit.state", circuitBreaker, breaker -> breaker.state() == state ? 1 : 0)
+                    .tag("state", state.name().toLowerCase(Locale.ROOT))
+                    .description("1 for the customer service circuit breaker's current state")
+                    .register(meterRegistry);
+        }
+        Gauge.builder("customer.client.bulkhead.available", bulkhead, Semaphore::availablePermits)
+                .description("Customer service calls that can still start without waiting")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        httpClient.close();
+    }
 
     public CustomerDetails fetchCustomerById(Long customerId) {
-        String url = customerServiceBaseUrl + "/api/customers/" + customerId;
-        return restTemplate.getForObject(url, CustomerDetails.class);
-    }
-
-    // This is for local testing
-//    public CustomerDetails fetchCustomerById(Long customerId) {
-//        // TEMP: Dev-only stub
-//        CustomerDetails customer = new CustomerDetails();
-//        customer.setCustomerId(customerId);
-//        customer.setName("Test User");
-//        customer.setEmail("test@gmail.com");
-//        customer.setPhone("9876543210");
-//        customer.setKycStatus("VERIFIED");
-//        customer.setCreatedAt("2022-01-01T10:00:00");
-//        return customer;
-//    }
+        return call(() -> restTemplate.getForObject(
+                customerServiceBaseUrl + "/api/customers/{id}", CustomerDetails.class, customerId));
+    }
+
+    /**
+     * Resolves several customers with one POST to /api/customers/batch. Unknown ids are simply
+     * missing from the result.
+     */
+    public List<CustomerDetails> fetchCustomersByIds(Collection<Long> customerIds) {
+        CustomerDetails[] customers = call(() -> restTemplate.postForObject(
+                customerServiceBaseUrl + "/api/customers/batch", Map.of("ids", customerIds), CustomerDetails[].class));
+        return customers == null ? List.of() : Arrays.asList(customers);
+    }
+
+    private <T> T call(Supplier<T> request) {
+        acquireBulkhead();
+        try {
+            if (!circuitBreaker.tryAcquire()) {
+                circuitRejected.increment();
+                throw new CustomerServiceUnavailableException("Customer service circuit is open");
+            }
+            long start = System.nanoTime();
+            try {
+                T response = request.get();
+                circuitBreaker.onSuccess();
+                succeeded.increment();
+                return response;
+            } catch (HttpClientErrorException e) {
+                // The service answered; a 404 or bad request says nothing about its health
+                circuitBreaker.onSuccess();
+                succeeded.increment();
+                throw e;
+            } catch (RestClientException e) {
+                circuitBreaker.onFailure();
+                failed.increment();
+                throw new CustomerServiceUnavailableException("Customer service call failed: " + e.getMessage(), e);
+            } catch (RuntimeException | Error e) {
+                // Still has to resolve a HALF_OPEN trial call, or the circuit would never let another through
+                circuitBreaker.onFailure();
+                failed.increment();
+                throw e;
+            } finally {
+                metricsService.recordCustomerLookupLatency(System.nanoTime() - start);
+            }
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    private void acquireBulkhead() {
+        try {
+            if (bulkhead.tryAcquire(bulkheadWaitMs, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        bulkheadRejected.increment();
+        throw new CustomerServiceUnavailableException("Too many concurrent customer service calls");
+    }
+
+    private static Counter callCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("customer.client.calls")
+                .tag("outcome", outcome)
+                .description("Customer service calls by outcome")
+                .register(meterRegistry);
+    }
 
     @Data
     public static class CustomerDetails {
@@ -0,0 +1,347 @@
+package com.banking.notification.service;
+
+import com.banking.notification.entity.NotificationPriority;
+import com.banking.notification.exception.PermanentDeliveryException;
+import jakarta.mail.internet.AddressException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.angus.mail.smtp.SMTPAddressFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSendFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSenderFailedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hands emails off to a fixed set of SMTP workers through a bounded queue.
+ * Each worker drains up to {@code batch-size} messages and sends them with a
+ * single {@link JavaMailSender#send(SimpleMailMessage...)} call, so one SMTP
+ * connection is opened per batch instead of per message.
+ * <p>
+ * HIGH priority emails go through a separate queue. {@code priority-workers} extra workers only
+ * serve that queue, so urgent mail always has SMTP sessions of its own, and the regular workers
+ * check it before each batch. Priority batches are sent without lingering.
+ * <p>
+ * An email that fails with an SMTP 4xx reply or a connection error is put back in its queue by a
+ * {@link HashedWheelTimer} after {@code retry.base-delay-ms * 2^attempt}, up to
+ * {@code retry.max-attempts} times, so no worker waits out the backoff. A 5xx reply or a malformed
+ * message fails at once with a {@link PermanentDeliveryException}. An email whose future was
+ * completed meanwhile, e.g. timed out by the channel router, is neither sent nor retried.
+ */
+@Service
+@Slf4j
+public class EmailDispatcher {
+
+    private static final String FROM_ADDRESS = "noreply@banking.com";
+    private static final long POLL_INTERVAL_MS = 200;
+
+    private final JavaMailSender mailSender;
+    private final MetricsService metricsService;
+    private final BlockingQueue<PendingEmail> queue;
+    private final BlockingQueue<PendingEmail> priorityQueue;
+    private final int workerCount;
+    private final int priorityWorkerCount;
+    private final int batchSize;
+    private final long lingerMs;
+    private final long offerTimeoutMs;
+    private final long shutdownTimeoutMs;
+    private final int maxRetries;
+    private final long retryBaseDelayMs;
+    private final long retryMaxDelayMs;
+    private final long retryTickMs;
+    private HashedWheelTimer retryTimer;
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    public EmailDispatcher(JavaMailSender mailSender,
+                           MetricsService metricsService,
+                           @Value("${notification.email.dispatcher.workers}") int workerCount,
+                           @Value("${notification.email.dispatcher.queue-capacity}") int queueCapacity,
+                           @Value("${notification.email.dispatcher.batch-size}") int batchSize,
+                           @Value("${notification.email.dispatcher.linger-ms}") long lingerMs,
+                           @Value("${notification.email.dispatcher.offer-timeout-ms}") long offerTimeoutMs,
+                           @Value("${notification.email.dispatcher.shutdown-timeout-ms}") long shutdownTimeoutMs,
+                           @Value("${notification.email.dispatcher.priority-workers}") int priorityWorkerCount,
+                           @Value("${notification.email.dispatcher.priority-queue-capacity}") int priorityQueueCapacity,
+                           @Value("${notification.email.retry.max-attempts}") int maxRetries,
+                           @Value("${notification.email.retry.base-delay-ms}") long retryBaseDelayMs,
+                           @Value("${notification.email.retry.max-delay-ms}") long retryMaxDelayMs,
+                           @Value("${notification.email.retry.tick-ms}") long retryTickMs) {
+        this.mailSender = mailSender;
+        this.metricsService = metricsService;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.priorityQueue = new ArrayBlockingQueue<>(priorityQueueCapacity);
+        this.workerCount = workerCount;
+        this.priorityWorkerCount = priorityWorkerCount;
+        this.batchSize = batchSize;
+        this.lingerMs = lingerMs;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+        this.maxRetries = maxRetries;
+        this.retryBaseDelayMs = retryBaseDelayMs;
+        this.retryMaxDelayMs = retryMaxDelayMs;
+        this.retryTickMs = retryTickMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        metricsService.registerEmailDispatchQueue(NotificationPriority.NORMAL, queue);
+        metricsService.registerEmailDispatchQueue(NotificationPriority.HIGH, priorityQueue);
+        // One turn of the wheel spans the longest delay, so retries expire on their first pass
+        int wheelSize = (int) Math.min(4096, retryMaxDelayMs / Math.max(1, retryTickMs) + 1);
+        retryTimer = new HashedWheelTimer("email-retry-timer", retryTickMs, wheelSize);
+        metricsService.registerEmailRetriesPending(retryTimer::pending);
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            startWorker(false, "email-dispatcher-" + i);
+        }
+        for (int i = 0; i < priorityWorkerCount; i++) {
+            startWorker(true, "email-dispatcher-priority-" + i);
+        }
+        log.info("Started {} email dispatcher workers and {} priority workers (batch size {}, queue capacity {})",
+                workerCount, priorityWorkerCount, batchSize, queue.remainingCapacity());
+    }
+
+    private void startWorker(boolean priorityOnly, String name) {
+        Thread worker = new Thread(() -> runWorker(priorityOnly), name);
+        worker.setDaemon(true);
+        worker.start();
+        workers.add(worker);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        long deadline = System.currentTimeMillis() + shutdownTimeoutMs;
+        for (Thread worker : workers) {
+            worker.join(Math.max(1, deadline - System.currentTimeMillis()));
+        }
+        // Requeue tasks that never ran fail their email now that the dispatcher is stopped
+        if (retryTimer != null) {
+            retryTimer.stop().forEach(Runnable::run);
+        }
+        List<PendingEmail> leftovers = new ArrayList<>();
+        priorityQueue.drainTo(leftovers);
+        queue.drainTo(leftovers);
+        RejectedExecutionException shutdown = new RejectedExecutionException("Email dispatcher shut down before sending");
+        leftovers.forEach(email -> email.future().completeExceptionally(shutdown));
+        if (!leftovers.isEmpty()) {
+            log.warn("Email dispatcher stopped with {} unsent emails", leftovers.size());
+        }
+    }
+
+    /**
+     * Queues an email for delivery. The returned future completes once the
+     * batch containing it has been accepted by the SMTP server, or
+     * exceptionally if sending failed for good or the queue stayed full for
+     * longer than {@code offer-timeout-ms}.
+     */
+    public CompletableFuture<Void> dispatch(String to, String subject, String body, NotificationPriority priority) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(to);
+        message.setSubject(subject);
+        message.setText(body);
+        message.setFrom(FROM_ADDRESS);
+
+        PendingEmail email = new PendingEmail(message, new CompletableFuture<>(), priority, 0);
+        if (!running) {
+            email.future().completeExceptionally(new RejectedExecutionException("Email dispatcher is not running"));
+            return email.future();
+        }
+        try {
+            if (!queueFor(priority).offer(email, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                email.future().completeExceptionally(new RejectedExecutionException("Email dispatch queue is full"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            email.future().completeExceptionally(e);
+        }
+        return email.future();
+    }
+
+    private void runWorker(boolean priorityOnly) {
+        List<PendingEmail> batch = new ArrayList<>(batchSize);
+        while (running || !priorityQueue.isEmpty() || (!priorityOnly && !queue.isEmpty())) {
+            try {
+                PendingEmail first = priorityOnly
+                        ? priorityQueue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS)
+                        : priorityQueue.poll();
+                if (first != null) {
+                    batch.add(first);
+                    priorityQueue.drainTo(batch, batchSize - 1);
+                } else if (!priorityOnly) {
+                    first = queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    fillBatch(batch);
+                } else {
+                    continue;
+                }
+                sendBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Email dispatcher worker failed to process batch", e);
+                batch.forEach(email -> email.future().completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void fillBatch(List<PendingEmail> batch) throws InterruptedException {
+        queue.drainTo(batch, batchSize - batch.size());
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMs);
+        while (batch.size() < batchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            PendingEmail next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+            queue.drainTo(batch, batchSize - batch.size());
+        }
+    }
+
+    private void sendBatch(List<PendingEmail> batch) {
+        // Timed out while queued: the notification is already failed and will be retried from the outbox
+        batch.removeIf(email -> email.future().isDone());
+        // Failures come back keyed by message, and equal messages would share one entry, so equal
+        // messages go out in separate sends
+        List<PendingEmail> remaining = batch;
+        while (!remaining.isEmpty()) {
+            Set<SimpleMailMessage> distinct = new HashSet<>();
+            List<PendingEmail> send = new ArrayList<>(remaining.size());
+            List<PendingEmail> later = new ArrayList<>();
+            for (PendingEmail email : remaining) {
+                if (distinct.add(email.message())) {
+                    send.add(email);
+                } else {
+                    later.add(email);
+                }
+            }
+            send(send);
+            remaining = later;
+        }
+    }
+
+    private void send(List<PendingEmail> batch) {
+        SimpleMailMessage[] messages = new SimpleMailMessage[batch.size()];
+        for (int i = 0; i < messages.length; i++) {
+            messages[i] = batch.get(i).message();
+        }
+        metricsService.recordEmailBatchSize(messages.length);
+        long start = System.nanoTime();
+        try {
+            mailSender.send(messages);
+            metricsService.recordSmtpLatency(System.nanoTime() - start);
+            batch.forEach(email -> email.future().complete(null));
+        } catch (MailSendException e) {
+            metricsService.recordSmtpLatency(System.nanoTime() - start);
+            // Failures are keyed by the original SimpleMailMessage, the rest of the batch went out
+            Map<Object, Exception> failedMessages = e.getFailedMessages();
+            for (PendingEmail email : batch) {
+                Exception cause = failedMessages.isEmpty() ? e : failedMessages.get(email.message());
+                if (cause == null) {
+                    email.future().complete(null);
+                } else {
+                    fail(email, cause);
+                }
+            }
+        } catch (MailException e) {
+            log.error("Failed to send batch of {} emails", messages.length, e);
+            batch.forEach(email -> fail(email, e));
+        }
+    }
+
+    private void fail(PendingEmail email, Exception cause) {
+        if (isPermanent(cause)) {
+            metricsService.recordEmailRejected();
+            email.future().completeExceptionally(new PermanentDeliveryException(String.valueOf(cause.getMessage()), cause));
+            return;
+        }
+        if (email.future().isDone()) {
+            return;
+        }
+        if (email.attempt() >= maxRetries || !running) {
+            email.future().completeExceptionally(cause);
+            return;
+        }
+        long delayMs = Math.min(retryMaxDelayMs, retryBaseDelayMs << Math.min(email.attempt(), 30));
+        PendingEmail retry = new PendingEmail(email.message(), email.future(), email.priority(), email.attempt() + 1);
+        try {
+            retryTimer.schedule(() -> requeue(retry, cause), delayMs);
+            metricsService.recordEmailRetryScheduled();
+        } catch (IllegalStateException e) {
+            email.future().completeExceptionally(cause);
+        }
+    }
+
+    // Runs on the timer thread, so it must not block on a full queue
+    private void requeue(PendingEmail email, Exception lastError) {
+        if (email.future().isDone()) {
+            return;
+        }
+        if (!running) {
+            email.future().completeExceptionally(lastError);
+        } else if (!queueFor(email.priority()).offer(email)) {
+            email.future().completeExceptionally(new RejectedExecutionException("Email dispatch queue is full"));
+        }
+    }
+
+    private BlockingQueue<PendingEmail> queueFor(NotificationPriority priority) {
+        return priority == NotificationPriority.HIGH ? priorityQueue : queue;
+    }
+
+    // 5xx replies and malformed messages fail the same way on every attempt; 4xx replies and connection errors may not
+    static boolean isPermanent(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MailParseException || cause instanceof MailPreparationException || cause instanceof AddressException) {
+                return true;
+            }
+            int replyCode = smtpReplyCode(cause);
+            if (replyCode > 0) {
+                return replyCode >= 500;
+            }
+        }
+        return false;
+    }
+
+    private static int smtpReplyCode(Throwable error) {
+        if (error instanceof SMTPAddressFailedException e) {
+            return e.getReturnCode();
+        }
+        if (error instanceof SMTPSendFailedException e) {
+            return e.getReturnCode();
+        }
+        if (error instanceof SMTPSenderFailedException e) {
+            return e.getReturnCode();
+        }
+        return -1;
+    }
+
+    private record PendingEmail(SimpleMailMessage message, CompletableFuture<Void> future, NotificationPriority priority, int attempt) {
+    }
+}
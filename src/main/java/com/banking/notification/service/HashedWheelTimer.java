@@ -0,0 +1,180 @@
+package com.banking.notification.service;
+
+import lombok.extern.slf4j.Slf4j;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Timer for many short, coarse delays such as send retries. Timeouts hash into a wheel of
+ * {@code wheelSize} buckets by their deadline tick; one thread advances the wheel every
+ * {@code tickMs} and runs the tasks of the current bucket whose round has come, so scheduling and
+ * expiring are O(1) however many retries are pending and no thread sleeps per retry. Deadlines are
+ * rounded up to the next tick. Tasks run on the timer thread and must only hand work off.
+ */
+@Slf4j
+public class HashedWheelTimer {
+
+    private final long tickNanos;
+    private final int mask;
+    private final List<Queue<Timeout>> wheel;
+    private final Queue<Timeout> incoming = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Thread worker;
+    private final long startNanos;
+    private volatile boolean running = true;
+    private long tick;
+
+    public HashedWheelTimer(String threadName, long tickMs, int wheelSize) {
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, tickMs));
+        // Power of two, so the bucket is a mask instead of a modulo
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.mask = size - 1;
+        this.wheel = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            wheel.add(new ArrayDeque<>());
+        }
+        this.startNanos = System.nanoTime();
+        this.worker = new Thread(this::run, threadName);
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Runs the task once {@code delayMs} have passed, or never if the timer stops first, in which
+     * case {@link #stop()} returns it. Throws if the timer is already stopped.
+     */
+    public Timeout schedule(Runnable task, long delayMs) {
+        Timeout timeout = new Timeout(task, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMs));
+        if (!running) {
+            throw new IllegalStateException("Timer is stopped");
+        }
+        pending.incrementAndGet();
+        incoming.add(timeout);
+        // stop() may have drained incoming between the check and the add; if it did not take this
+        // timeout, take it back so it is not silently stranded
+        if (!running && incoming.remove(timeout)) {
+            timeout.claim();
+            throw new IllegalStateException("Timer is stopped");
+        }
+        return timeout;
+    }
+
+    /**
+     * Timeouts that were scheduled but have neither run nor been cancelled.
+     */
+    public int pending() {
+        return pending.get();
+    }
+
+    /**
+     * Stops the timer and returns the tasks that will now never run.
+     */
+    public List<Runnable> stop() throws InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join();
+        List<Runnable> unprocessed = new ArrayList<>();
+        collect(incoming, unprocessed);
+        wheel.forEach(bucket -> collect(bucket, unprocessed));
+        return unprocessed;
+    }
+
+    private void run() {
+        while (running) {
+            long deadline = startNanos + (tick + 1) * tickNanos;
+            long sleep;
+            while (running && (sleep = deadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, sleep);
+            }
+            if (!running) {
+                return;
+            }
+            transferIncoming();
+            expire(wheel.get((int) (tick & mask)));
+            tick++;
+        }
+    }
+
+    private void transferIncoming() {
+        Timeout timeout;
+        while ((timeout = incoming.poll()) != null) {
+            if (timeout.cancelled) {
+                continue;
+            }
+            long deadlineTick = Math.max(tick, (timeout.deadlineNanos - startNanos + tickNanos - 1) / tickNanos);
+            timeout.rounds = (deadlineTick - tick) / wheel.size();
+            wheel.get((int) (deadlineTick & mask)).add(timeout);
+        }
+    }
+
+    private void expire(Queue<Timeout> bucket) {
+        for (Iterator<Timeout> it = bucket.iterator(); it.hasNext(); ) {
+            Timeout timeout = it.next();
+            if (timeout.cancelled) {
+                it.remove();
+            } else if (timeout.rounds <= 0) {
+                it.remove();
+                if (timeout.claim()) {
+                    try {
+                        timeout.task.run();
+                    } catch (RuntimeException e) {
+                        log.error("Timer task failed", e);
+                    }
+                }
+            } else {
+                timeout.rounds--;
+            }
+        }
+    }
+
+    private void collect(Queue<Timeout> timeouts, List<Runnable> unprocessed) {
+        Timeout timeout;
+        while ((timeout = timeouts.poll()) != null) {
+            if (timeout.claim()) {
+                unprocessed.add(timeout.task);
+            }
+        }
+    }
+
+    public final class Timeout {
+
+        private final Runnable task;
+        private final long deadlineNanos;
+        private volatile boolean cancelled;
+        private boolean done;
+        // Full turns of the wheel left before expiry; only touched by the timer thread
+        private long rounds;
+
+        private Timeout(Runnable task, long deadlineNanos) {
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        /**
+         * Returns false if the task already ran or was cancelled before.
+         */
+        public boolean cancel() {
+            if (!claim()) {
+                return false;
+            }
+            cancelled = true;
+            return true;
+        }
+
+        private synchronized boolean claim() {
+            if (done) {
+                return false;
+            }
+            done = true;
+            pending.decrementAndGet();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.banking.notification.service;
+
+import com.banking.notification.entity.IdempotencyKeyId;
+import com.banking.notification.entity.Notification;
+import com.banking.notification.entity.NotificationIdempotencyKey;
+import com.banking.notification.repository.NotificationIdempotencyKeyRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Detects notifications that were already queued, for example when RabbitMQ redelivers a
+ * message whose ack was lost. The primary key of notification_idempotency_keys is the source
+ * of truth; a Bloom filter in front of it answers "definitely new" for the common case, so
+ * only filter hits cost a database lookup. The filter is refilled from recent keys at startup.
+ */
+@Service
+@Slf4j
+public class IdempotencyGuard {
+
+    private final NotificationIdempotencyKeyRepository keyRepository;
+    private final BloomFilter filter;
+    private final long rebuildWindowHours;
+    private final Counter filterMisses;
+    private final Counter falsePositives;
+    private final Counter duplicates;
+
+    public IdempotencyGuard(NotificationIdempotencyKeyRepository keyRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${notification.idempotency.expected-insertions}") long expectedInsertions,
+                            @Value("${notification.idempotency.false-positive-rate}") double falsePositiveRate,
+                            @Value("${notification.idempotency.rebuild-window-hours}") long rebuildWindowHours) {
+        this.keyRepository = keyRepository;
+        this.filter = new BloomFilter(expectedInsertions, falsePositiveRate);
+        this.rebuildWindowHours = rebuildWindowHours;
+        this.filterMisses = checkCounter(meterRegistry, "new");
+        this.falsePositives = checkCounter(meterRegistry, "false-positive");
+        this.duplicates = checkCounter(meterRegistry, "duplicate");
+        Gauge.builder("notification.idempotency.filter.fpp", filter, BloomFilter::expectedFalsePositiveRate)
+                .description("Expected false-positive rate of the idempotency Bloom filter at its current fill")
+                .register(meterRegistry);
+    }
+
+    // Until this has run every key is checked against the database only through the unique index
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        LocalDateTime since = LocalDateTime.now().minusHours(rebuildWindowHours);
+        LongAdder loaded = new LongAdder();
+        try (Stream<IdempotencyKeyId> keys = keyRepository.streamKeysCreatedSince(since)) {
+            keys.forEach(key -> {
+                remember(key);
+                loaded.increment();
+            });
+        }
+        log.info("Loaded {} idempotency keys created since {} into the filter (expected fpp {})",
+                loaded.sum(), since, filter.expectedFalsePositiveRate());
+    }
+
+    /**
+     * Returns the keys that are already stored, with one query for all keys the filter could not rule out.
+     */
+    public Set<IdempotencyKeyId> findExisting(Collection<IdempotencyKeyId> keys) {
+        List<IdempotencyKeyId> candidates = new ArrayList<>();
+        for (IdempotencyKeyId key : keys) {
+            if (filter.mightContain(hash(key))) {
+                candidates.add(key);
+            } else {
+                filterMisses.increment();
+            }
+        }
+        if (candidates.isEmpty()) {
+            return Set.of();
+        }
+        Set<IdempotencyKeyId> existing = new HashSet<>();
+        for (NotificationIdempotencyKey key : keyRepository.findAllById(candidates)) {
+            existing.add(key.getId());
+        }
+        duplicates.increment(existing.size());
+        falsePositives.increment(candidates.size() - existing.size());
+        return existing;
+    }
+
+    // Call after the key has been committed
+    public void remember(IdempotencyKeyId key) {
+        filter.put(hash(key));
+    }
+
+    public static IdempotencyKeyId keyOf(Notification notification) {
+        return new IdempotencyKeyId(notification.getNotificationType(), notification.getReferenceId(), notification.getChannel());
+    }
+
+    private static long hash(IdempotencyKeyId key) {
+        long discriminator = ((long) key.getNotificationType().ordinal() << 8) | key.getChannel().ordinal();
+        return BloomFilter.mix(BloomFilter.mix(key.getReferenceId()) ^ (discriminator << 48));
+    }
+
+    private static Counter checkCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("notification.idempotency.checks")
+                .tag("result", result)
+                .description("Idempotency checks by outcome")
+                .register(meterRegistry);
+    }
+}
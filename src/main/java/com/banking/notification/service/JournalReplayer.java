@@ -0,0 +1,209 @@
+package com.banking.notification.service;
+
+import com.banking.notification.dto.TransactionNotificationRequest;
+import com.banking.notification.repository.NotificationRepository;
+import com.banking.notification.service.NotificationJournal.JournalRecord;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Drains the {@link NotificationJournal} into the outbox in batches of {@code batch-size}. Each batch
+ * is inserted in one transaction that also advances this journal's row in
+ * notification_journal_checkpoints, so after a crash replay resumes right behind the last committed
+ * record and nothing is inserted twice. Notifications carry the time a record was accepted into the
+ * journal, not the time it was replayed. While the database is unavailable the replayer backs off up
+ * to {@code max-backoff-ms} and records simply accumulate in the journal. A record that fails for any
+ * other reason, such as a constraint violation, can never be queued: it is logged, counted in
+ * {@code notification.journal.skipped} and the checkpoint moves past it.
+ */
+@Component
+@Slf4j
+public class JournalReplayer {
+
+    private final NotificationJournal journal;
+    private final NotificationService notificationService;
+    private final NotificationRepository notificationRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long pollIntervalMs;
+    private final long maxBackoffMs;
+    private final Counter skipped;
+    private volatile long checkpoint = -1;
+    private volatile boolean running;
+    private Thread replayer;
+
+    public JournalReplayer(NotificationJournal journal,
+                           NotificationService notificationService,
+                           NotificationRepository notificationRepository,
+                           JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${notification.journal.replay.batch-size}") int batchSize,
+                           @Value("${notification.journal.replay.poll-interval-ms}") long pollIntervalMs,
+                           @Value("${notification.journal.replay.max-backoff-ms}") long maxBackoffMs) {
+        this.journal = journal;
+        this.notificationService = notificationService;
+        this.notificationRepository = notificationRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.pollIntervalMs = pollIntervalMs;
+        this.maxBackoffMs = maxBackoffMs;
+        Gauge.builder("notification.journal.backlog", this, replayer -> replayer.checkpoint < 0 ? 0 : journal.lastSequence() - replayer.checkpoint)
+                .description("Journaled transaction notifications not yet replayed into the outbox")
+                .register(meterRegistry);
+        this.skipped = Counter.builder("notification.journal.skipped")
+                .description("Journal records that could not be queued and were skipped")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!journal.isEnabled()) {
+            return;
+        }
+        running = true;
+        replayer = new Thread(this::run, "journal-replayer");
+        replayer.setDaemon(true);
+        replayer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (replayer != null) {
+            replayer.interrupt();
+            replayer.join(pollIntervalMs * 2);
+        }
+    }
+
+    private void run() {
+        long backoffMs = pollIntervalMs;
+        while (running) {
+            try {
+                if (checkpoint < 0) {
+                    checkpoint = loadCheckpoint();
+                    log.info("Replaying notification journal {} after sequence {}", journal.journalId(), checkpoint);
+                }
+                List<JournalRecord> batch = journal.readAfter(checkpoint, batchSize);
+                if (batch.isEmpty()) {
+                    journal.awaitRecords(checkpoint, pollIntervalMs);
+                    continue;
+                }
+                replay(batch);
+                journal.release(checkpoint);
+                backoffMs = pollIntervalMs;
+            } catch (RuntimeException e) {
+                log.warn("Journal replay waiting {} ms: {}", backoffMs, e.getMessage());
+                if (!sleep(backoffMs)) {
+                    return;
+                }
+                backoffMs = Math.min(backoffMs * 2, maxBackoffMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void replay(List<JournalRecord> batch) {
+        long last = batch.get(batch.size() - 1).sequence();
+        try {
+            insert(batch, last);
+            checkpoint = last;
+        } catch (RuntimeException e) {
+            // One transaction per record isolates a record that can never be queued from the rest of the batch
+            log.warn("Failed to replay journal batch up to sequence {}, replaying records one by one: {}", last, e.getMessage());
+            batch.forEach(this::replayOne);
+        }
+    }
+
+    private void replayOne(JournalRecord record) {
+        try {
+            insert(List.of(record), record.sequence());
+        } catch (RuntimeException e) {
+            if (isTransient(e)) {
+                // Retried after the backoff; a row that committed meanwhile is then filtered out as a duplicate
+                throw e;
+            }
+            // Fails the same way on every attempt, e.g. a constraint violation or a duplicate key
+            log.error("Skipping journal record {} for transaction {}", record.sequence(), record.request().getTransactionId(), e);
+            skip(record);
+            skipped.increment();
+        }
+        checkpoint = record.sequence();
+    }
+
+    // Connection loss, timeouts, deadlocks and the like; everything else would fail again on the same record
+    static boolean isTransient(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TransientDataAccessException
+                    || cause instanceof RecoverableDataAccessException
+                    || cause instanceof DataAccessResourceFailureException
+                    || cause instanceof CannotCreateTransactionException) {
+                return true;
+            }
+            // SQLState class 08 is a connection exception
+            if (cause instanceof SQLException sql && sql.getSQLState() != null && sql.getSQLState().startsWith("08")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void insert(List<JournalRecord> records, long lastSequence) {
+        List<TransactionNotificationRequest> requests = records.stream().map(JournalRecord::request).toList();
+        List<LocalDateTime> acceptedAt = records.stream().map(JournalRecord::acceptedAt).toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            notificationService.sendTransactionNotifications(requests, acceptedAt);
+            // Surfaces constraint violations here instead of at commit
+            notificationRepository.flush();
+            saveCheckpoint(lastSequence);
+        });
+    }
+
+    private void skip(JournalRecord record) {
+        transactionTemplate.executeWithoutResult(status -> saveCheckpoint(record.sequence()));
+    }
+
+    private long loadCheckpoint() {
+        List<Long> sequences = jdbcTemplate.queryForList(
+                "SELECT sequence FROM notification_journal_checkpoints WHERE journal_id = ?", Long.class, journal.journalId());
+        return sequences.isEmpty() ? 0 : sequences.get(0);
+    }
+
+    private void saveCheckpoint(long sequence) {
+        jdbcTemplate.update("""
+                INSERT INTO notification_journal_checkpoints (journal_id, sequence, updated_at) VALUES (?, ?, ?)
+                ON CONFLICT (journal_id) DO UPDATE SET sequence = EXCLUDED.sequence, updated_at = EXCLUDED.updated_at""",
+                journal.journalId(), sequence, LocalDateTime.now());
+    }
+
+    private boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -1,36 +1,210 @@
 package com.banking.notification.service;
 
+import com.banking.notification.entity.NotificationChannel;
+import com.banking.notification.entity.NotificationPriority;
+import com.banking.notification.entity.NotificationType;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
 import org.springframework.stereotype.Service;
-import lombok.RequiredArgsConstructor;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
+/**
+ * All meters are registered up front and held in fields or enum-indexed arrays, so recording
+ * is a plain array read plus the meter update: no builder, tag list or registry lookup per call.
+ * Latency timers publish p50/p95/p99 and a percentile histogram for Prometheus.
+ */
 @Service
-@RequiredArgsConstructor
 public class MetricsService {
 
+    private static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+
     private final MeterRegistry meterRegistry;
+    // [outcome][type][channel]
+    private final Counter[][][] outcomeCounters;
+    // [channel]
+    private final Timer[] deliveryLatency;
+    private final Timer[] rateLimitWait;
+    private final Timer smtpLatency;
+    private final Timer dbSaveLatency;
+    private final Timer customerLookupLatency;
+    // [priority]
+    private final Timer[] queueToSentLatency;
+    private final DistributionSummary emailBatchSize;
+    private final Counter emailRetriesScheduled;
+    private final Counter emailRejections;
+
+    public MetricsService(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.outcomeCounters = new Counter[Outcome.values().length][NotificationType.values().length][NotificationChannel.values().length];
+        for (Outcome outcome : Outcome.values()) {
+            for (NotificationType type : NotificationType.values()) {
+                for (NotificationChannel channel : NotificationChannel.values()) {
+                    outcomeCounters[outcome.ordinal()][type.ordinal()][channel.ordinal()] = Counter.builder(outcome.meterName)
+                            .tag("type", tagValue(type))
+                            .tag("channel", tagValue(channel))
+                            .description(outcome.description)
+                            .register(meterRegistry);
+                }
+            }
+        }
+        this.deliveryLatency = new Timer[NotificationChannel.values().length];
+        for (NotificationChannel channel : NotificationChannel.values()) {
+            deliveryLatency[channel.ordinal()] = latencyTimer(Timer.builder("notification.latency").tag("channel", tagValue(channel)),
+                    "Time from handing a notification to its channel provider until it was sent", Duration.ofMinutes(1));
+        }
+        this.rateLimitWait = new Timer[NotificationChannel.values().length];
+        for (NotificationChannel channel : NotificationChannel.values()) {
+            rateLimitWait[channel.ordinal()] = latencyTimer(Timer.builder("notification.ratelimit.wait").tag("channel", tagValue(channel)),
+                    "Time a send waited for its channel's rate limit", Duration.ofMinutes(1));
+        }
+        this.smtpLatency = latencyTimer("notification.smtp.latency",
+                "Time spent in one SMTP send call", Duration.ofMinutes(1));
+        this.dbSaveLatency = latencyTimer("notification.db.save.latency",
+                "Time to insert and commit notifications into the outbox", Duration.ofSeconds(10));
+        this.customerLookupLatency = latencyTimer("customer.lookup.latency",
+                "Time to fetch customer details from the customer service", Duration.ofSeconds(30));
+        this.queueToSentLatency = new Timer[NotificationPriority.values().length];
+        for (NotificationPriority priority : NotificationPriority.values()) {
+            queueToSentLatency[priority.ordinal()] = latencyTimer(Timer.builder("notification.end-to-end.latency").tag("priority", tagValue(priority)),
+                    "Time from a notification being queued until it was sent", Duration.ofHours(1));
+        }
+        this.emailBatchSize = DistributionSummary.builder("notification.email.dispatch.batch.size")
+                .description("Emails sent per SMTP session")
+                .register(meterRegistry);
+        this.emailRetriesScheduled = Counter.builder("notification.email.retries")
+                .tag("result", "scheduled")
+                .description("Emails rescheduled on the retry timer after a transient SMTP failure")
+                .register(meterRegistry);
+        this.emailRejections = Counter.builder("notification.email.retries")
+                .tag("result", "rejected")
+                .description("Emails failed without retry after a permanent SMTP failure")
+                .register(meterRegistry);
+    }
+
+    public void recordSent(NotificationType type, NotificationChannel channel) {
+        outcomeCounters[Outcome.SENT.ordinal()][type.ordinal()][channel.ordinal()].increment();
+    }
+
+    public void recordFailed(NotificationType type, NotificationChannel channel) {
+        outcomeCounters[Outcome.FAILED.ordinal()][type.ordinal()][channel.ordinal()].increment();
+    }
+
+    public void recordDeliveryLatency(NotificationChannel channel, long nanos) {
+        deliveryLatency[channel.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Highest recent p99 of {@code notification.latency} across channels, in milliseconds.
+     */
+    public double maxDeliveryLatencyP99Millis() {
+        double max = 0;
+        for (Timer timer : deliveryLatency) {
+            for (ValueAtPercentile percentile : timer.takeSnapshot().percentileValues()) {
+                if (percentile.percentile() == 0.99) {
+                    max = Math.max(max, percentile.value(TimeUnit.MILLISECONDS));
+                }
+            }
+        }
+        return max;
+    }
+
+    public void recordRateLimitWait(NotificationChannel channel, long nanos) {
+        rateLimitWait[channel.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordSmtpLatency(long nanos) {
+        smtpLatency.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordDbSaveLatency(long nanos) {
+        dbSaveLatency.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordCustomerLookupLatency(long nanos) {
+        customerLookupLatency.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordQueueToSentLatency(NotificationPriority priority, long millis) {
+        queueToSentLatency[priority.ordinal()].record(millis, TimeUnit.MILLISECONDS);
+    }
+
+    public void registerEmailDispatchQueue(NotificationPriority priority, Collection<?> queue) {
+        Gauge.builder("notification.email.dispatch.queue.depth", queue, Collection::size)
+                .tag("priority", tagValue(priority))
+                .description("Emails waiting for an SMTP dispatch worker")
+                .register(meterRegistry);
+    }
+
+    public void recordEmailBatchSize(int batchSize) {
+        emailBatchSize.record(batchSize);
+    }
 
-    public void incrementNotificationsSent(String type) {
-        Counter.builder("notifications.sent")
-                .tag("type", type)
-                .description("Total notifications sent")
-                .register(meterRegistry)
-                .increment();
+    public void recordEmailRetryScheduled() {
+        emailRetriesScheduled.increment();
     }
 
-    public void incrementNotificationsFailed(String type) {
-        Counter.builder("notifications.failed")
-                .tag("type", type)
-                .description("Total notifications failed")
-                .register(meterRegistry)
-                .increment();
+    public void recordEmailRejected() {
+        emailRejections.increment();
+    }
+
+    public void registerEmailRetriesPending(Supplier<Number> pending) {
+        Gauge.builder("notification.email.retries.pending", pending)
+                .description("Emails waiting on the retry timer for their next SMTP attempt")
+                .register(meterRegistry);
+    }
+
+    public void registerChannelQueue(NotificationChannel channel, NotificationPriority priority, Collection<?> queue) {
+        Gauge.builder("notification.channel.queue.depth", queue, Collection::size)
+                .tag("channel", tagValue(channel))
+                .tag("priority", tagValue(priority))
+                .description("Messages waiting for a channel provider worker")
+                .register(meterRegistry);
     }
 
-    public Timer getNotificationLatencyTimer() {
-        return Timer.builder("notification.latency")
-                .description("Time taken to send notification")
+    public void registerDeliveryInFlight(NotificationChannel channel, NotificationPriority lane, Supplier<Number> inFlight) {
+        Gauge.builder("notification.delivery.in-flight", inFlight)
+                .tag("channel", tagValue(channel))
+                .tag("lane", tagValue(lane))
+                .description("Claimed notifications waiting for a channel outcome")
                 .register(meterRegistry);
     }
+
+    private Timer latencyTimer(String name, String description, Duration maximumExpected) {
+        return latencyTimer(Timer.builder(name), description, maximumExpected);
+    }
+
+    private Timer latencyTimer(Timer.Builder builder, String description, Duration maximumExpected) {
+        return builder
+                .description(description)
+                .publishPercentiles(PERCENTILES)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(maximumExpected)
+                .register(meterRegistry);
+    }
+
+    private static String tagValue(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+
+    private enum Outcome {
+        SENT("notifications.sent", "Total notifications sent"),
+        FAILED("notifications.failed", "Total notifications failed");
+
+        private final String meterName;
+        private final String description;
+
+        Outcome(String meterName, String description) {
+            this.meterName = meterName;
+            this.description = description;
+        }
+    }
 }
@@ -0,0 +1,458 @@
+package com.banking.notification.service;
+
+import com.banking.notification.dto.TransactionNotificationRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Local write-ahead journal for transaction notification requests, so the listener can accept a
+ * message without waiting for PostgreSQL; {@link JournalReplayer} moves the records into the outbox.
+ * <p>
+ * Records are appended to memory-mapped segment files of {@code segment-size-mb} as
+ * {@code [length][crc32c][sequence][json]} with gap-free sequence numbers. The json holds the request
+ * and the time it was accepted, so a replayed notification keeps that time rather than the replay's. A syncer thread forces
+ * everything written since its last pass in one call, so concurrent appenders share an fsync
+ * (group commit); {@link #appendAll} returns once its records are on disk. On startup the last
+ * segment is scanned and a torn record at its end is discarded. The journal directory carries a
+ * random id, so a wiped directory is never mistaken for the one a replay checkpoint belongs to.
+ */
+@Component
+@Slf4j
+public class NotificationJournal {
+
+    private static final int HEADER_BYTES = 16;
+    private static final int END_OF_SEGMENT = -1;
+    private static final String ID_FILE = "journal.id";
+    private static final Pattern SEGMENT_NAME = Pattern.compile("journal-(\\d{20})\\.log");
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final boolean fsync;
+    private final Timer appendLatency;
+    private final DistributionSummary syncBatchSize;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private final Condition synced = lock.newCondition();
+    // First sequence of each segment -> its file
+    private final NavigableMap<Long, Path> segments = new ConcurrentSkipListMap<>();
+    private String journalId;
+    private MappedByteBuffer active;
+    private long nextSequence;
+    private long writtenSequence;
+    private volatile long syncedSequence;
+    private int syncedOffset;
+    private Thread syncer;
+    private volatile boolean running;
+    // Replayer-side read position; only used by the single replayer thread
+    private Cursor cursor;
+
+    public NotificationJournal(ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry,
+                               @Value("${notification.journal.enabled}") boolean enabled,
+                               @Value("${notification.journal.dir}") String directory,
+                               @Value("${notification.journal.segment-size-mb}") int segmentSizeMb,
+                               @Value("${notification.journal.max-segments}") int maxSegments,
+                               @Value("${notification.journal.fsync}") boolean fsync) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.segmentSize = segmentSizeMb * 1024 * 1024;
+        this.maxSegments = maxSegments;
+        this.fsync = fsync;
+        this.appendLatency = Timer.builder("notification.journal.append.latency")
+                .description("Time to append transaction notifications to the journal, including the fsync wait")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.syncBatchSize = DistributionSummary.builder("notification.journal.sync.batch.size")
+                .description("Journal records made durable by one fsync")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(directory);
+        journalId = readOrCreateId();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    segments.put(Long.parseLong(matcher.group(1)), file);
+                }
+            });
+        }
+        if (segments.isEmpty()) {
+            active = createSegment(1);
+            nextSequence = 1;
+        } else {
+            Map.Entry<Long, Path> last = segments.lastEntry();
+            active = map(last.getValue(), FileChannel.MapMode.READ_WRITE);
+            nextSequence = recover(active, last.getKey());
+        }
+        writtenSequence = nextSequence - 1;
+        syncedSequence = writtenSequence;
+        syncedOffset = active.position();
+        running = true;
+        syncer = new Thread(this::runSyncer, "notification-journal-syncer");
+        syncer.setDaemon(true);
+        syncer.start();
+        log.info("Opened notification journal {} in {} at sequence {} ({} segments)", journalId, directory, nextSequence, segments.size());
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        lock.lock();
+        try {
+            appended.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        syncer.join(1_000);
+        active.force();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String journalId() {
+        return journalId;
+    }
+
+    public long lastSequence() {
+        return syncedSequence;
+    }
+
+    /**
+     * Appends the requests and waits until they are durable. Returns the sequence of the last one.
+     */
+    public long appendAll(List<TransactionNotificationRequest> requests) {
+        long start = System.nanoTime();
+        LocalDateTime acceptedAt = LocalDateTime.now();
+        List<byte[]> payloads = new ArrayList<>(requests.size());
+        int size = 0;
+        for (TransactionNotificationRequest request : requests) {
+            byte[] payload = serialize(request, acceptedAt);
+            payloads.add(payload);
+            size += HEADER_BYTES + payload.length;
+        }
+        long sequence;
+        lock.lock();
+        try {
+            if (!running) {
+                throw new IllegalStateException("Notification journal is not open");
+            }
+            // Checked up front so a batch is never half appended
+            if (segments.size() >= maxSegments && active.position() + size + 4 > segmentSize) {
+                throw new IllegalStateException("Notification journal is full (" + maxSegments + " segments not yet replayed)");
+            }
+            for (byte[] payload : payloads) {
+                write(payload);
+            }
+            sequence = writtenSequence;
+            if (fsync) {
+                appended.signal();
+                while (syncedSequence < sequence) {
+                    if (!running) {
+                        throw new IllegalStateException("Notification journal closed before the append was synced");
+                    }
+                    synced.awaitUninterruptibly();
+                }
+            } else {
+                syncedSequence = sequence;
+            }
+        } finally {
+            lock.unlock();
+        }
+        appendLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return sequence;
+    }
+
+    /**
+     * Up to {@code max} durable records following {@code afterSequence}, oldest first.
+     */
+    public List<JournalRecord> readAfter(long afterSequence, int max) {
+        List<JournalRecord> records = new ArrayList<>();
+        long durable = syncedSequence;
+        if (afterSequence >= durable) {
+            return records;
+        }
+        if (cursor == null || cursor.lastSequence != afterSequence) {
+            cursor = seek(afterSequence);
+        }
+        while (records.size() < max && cursor.lastSequence < durable) {
+            int length = cursor.buffer.getInt(cursor.offset);
+            if (length == END_OF_SEGMENT) {
+                Map.Entry<Long, Path> next = segments.higherEntry(cursor.firstSequence);
+                cursor = new Cursor(next.getKey(), map(next.getValue(), FileChannel.MapMode.READ_ONLY), 0, cursor.lastSequence);
+                continue;
+            }
+            long sequence = cursor.buffer.getLong(cursor.offset + 8);
+            byte[] payload = new byte[length];
+            cursor.buffer.get(cursor.offset + HEADER_BYTES, payload);
+            records.add(deserialize(sequence, payload));
+            cursor.offset += HEADER_BYTES + length;
+            cursor.lastSequence = sequence;
+        }
+        return records;
+    }
+
+    /**
+     * Waits up to {@code timeoutMs} for records after {@code afterSequence} to become durable.
+     */
+    public void awaitRecords(long afterSequence, long timeoutMs) throws InterruptedException {
+        lock.lock();
+        try {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+            long remaining;
+            while (syncedSequence <= afterSequence && (remaining = deadline - System.nanoTime()) > 0) {
+                synced.awaitNanos(remaining);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Deletes segments whose records are all replayed. The active segment is always kept, so the
+     * sequence numbering survives a restart.
+     */
+    public void release(long replayedSequence) {
+        for (Map.Entry<Long, Path> segment : segments.entrySet()) {
+            Long next = segments.higherKey(segment.getKey());
+            if (next == null || next - 1 > replayedSequence) {
+                return;
+            }
+            try {
+                Files.deleteIfExists(segment.getValue());
+                segments.remove(segment.getKey());
+                log.debug("Deleted replayed journal segment {}", segment.getValue());
+            } catch (IOException e) {
+                log.warn("Cannot delete replayed journal segment {}: {}", segment.getValue(), e.getMessage());
+                return;
+            }
+        }
+    }
+
+    // Called with the lock held
+    private void write(byte[] payload) {
+        int size = HEADER_BYTES + payload.length;
+        if (size + 4 > segmentSize) {
+            throw new IllegalArgumentException("Journal record of " + size + " bytes does not fit in a segment");
+        }
+        if (active.position() + size + 4 > segmentSize) {
+            roll();
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        long sequence = nextSequence++;
+        active.putInt(payload.length)
+                .putInt((int) crc.getValue())
+                .putLong(sequence)
+                .put(payload);
+        writtenSequence = sequence;
+    }
+
+    // Called with the lock held: seals the active segment and starts the next one
+    private void roll() {
+        active.putInt(END_OF_SEGMENT);
+        active.force();
+        syncedSequence = writtenSequence;
+        synced.signalAll();
+        active = createSegment(nextSequence);
+        syncedOffset = 0;
+    }
+
+    private void runSyncer() {
+        while (true) {
+            MappedByteBuffer buffer;
+            int from;
+            int to;
+            long target;
+            long previous;
+            lock.lock();
+            try {
+                while (running && writtenSequence == syncedSequence) {
+                    appended.awaitUninterruptibly();
+                }
+                if (!running) {
+                    synced.signalAll();
+                    return;
+                }
+                buffer = active;
+                from = syncedOffset;
+                to = active.position();
+                target = writtenSequence;
+                previous = syncedSequence;
+            } finally {
+                lock.unlock();
+            }
+            // Outside the lock, so appenders keep writing into the next group meanwhile
+            buffer.force(from, to - from);
+            lock.lock();
+            try {
+                if (buffer == active) {
+                    syncedOffset = to;
+                }
+                if (target > syncedSequence) {
+                    syncedSequence = target;
+                    syncBatchSize.record(target - previous);
+                }
+                synced.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Positions the buffer after the last intact record and returns the next sequence
+    private long recover(MappedByteBuffer buffer, long firstSequence) {
+        int offset = 0;
+        long next = firstSequence;
+        while (offset + HEADER_BYTES <= segmentSize) {
+            int length = buffer.getInt(offset);
+            if (length <= 0 || offset + HEADER_BYTES + length > segmentSize) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(offset + HEADER_BYTES, payload);
+            CRC32C crc = new CRC32C();
+            crc.update(payload);
+            if ((int) crc.getValue() != buffer.getInt(offset + 4) || buffer.getLong(offset + 8) != next) {
+                log.warn("Discarding torn journal record at offset {} of the segment starting at {}", offset, firstSequence);
+                break;
+            }
+            offset += HEADER_BYTES + length;
+            next++;
+        }
+        // Anything left after this offset is overwritten by the next appends
+        buffer.position(offset);
+        return next;
+    }
+
+    private Cursor seek(long afterSequence) {
+        Map.Entry<Long, Path> segment = segments.floorEntry(afterSequence + 1);
+        if (segment == null) {
+            segment = segments.firstEntry();
+        }
+        Cursor seeking = new Cursor(segment.getKey(), map(segment.getValue(), FileChannel.MapMode.READ_ONLY), 0, segment.getKey() - 1);
+        while (seeking.lastSequence < afterSequence) {
+            int length = seeking.buffer.getInt(seeking.offset);
+            seeking.offset += HEADER_BYTES + length;
+            seeking.lastSequence++;
+        }
+        return seeking;
+    }
+
+    private MappedByteBuffer createSegment(long firstSequence) {
+        Path file = directory.resolve(String.format("journal-%020d.log", firstSequence));
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.setLength(segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create journal segment " + file, e);
+        }
+        segments.put(firstSequence, file);
+        return map(file, FileChannel.MapMode.READ_WRITE);
+    }
+
+    private MappedByteBuffer map(Path file, FileChannel.MapMode mode) {
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), mode == FileChannel.MapMode.READ_ONLY ? "r" : "rw")) {
+            return raf.getChannel().map(mode, 0, segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map journal segment " + file, e);
+        }
+    }
+
+    private String readOrCreateId() throws IOException {
+        Path idFile = directory.resolve(ID_FILE);
+        if (Files.exists(idFile)) {
+            return Files.readString(idFile, StandardCharsets.UTF_8).trim();
+        }
+        String id = UUID.randomUUID().toString();
+        Files.writeString(idFile, id, StandardCharsets.UTF_8);
+        return id;
+    }
+
+    // The time is kept as an ISO string, so the journal does not depend on the mapper's date handling
+    private byte[] serialize(TransactionNotificationRequest request, LocalDateTime acceptedAt) {
+        try {
+            return objectMapper.writeValueAsBytes(new Payload(request, acceptedAt.toString()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot serialize transaction notification " + request.getTransactionId(), e);
+        }
+    }
+
+    private JournalRecord deserialize(long sequence, byte[] payload) {
+        try {
+            JsonNode json = objectMapper.readTree(payload);
+            if (!json.has("request")) {
+                // Written before records carried their accept time; replayed as if accepted now
+                return new JournalRecord(sequence, objectMapper.treeToValue(json, TransactionNotificationRequest.class), LocalDateTime.now());
+            }
+            Payload record = objectMapper.treeToValue(json, Payload.class);
+            return new JournalRecord(sequence, record.request(), LocalDateTime.parse(record.acceptedAt()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read journal record", e);
+        }
+    }
+
+    public record JournalRecord(long sequence, TransactionNotificationRequest request, LocalDateTime acceptedAt) {
+    }
+
+    record Payload(TransactionNotificationRequest request, String acceptedAt) {
+    }
+
+    private static final class Cursor {
+
+        private final long firstSequence;
+        private final MappedByteBuffer buffer;
+        private int offset;
+        private long lastSequence;
+
+        private Cursor(long firstSequence, MappedByteBuffer buffer, int offset, long lastSequence) {
+            this.firstSequence = firstSequence;
+            this.buffer = buffer;
+            this.offset = offset;
+            this.lastSequence = lastSequence;
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.banking.notification.service;
+
+import com.banking.notification.entity.Notification;
+import com.banking.notification.entity.NotificationChannel;
+import com.banking.notification.entity.NotificationIdempotencyKey;
+import com.banking.notification.entity.NotificationPriority;
+import com.banking.notification.entity.NotificationRecipient;
+import com.banking.notification.entity.NotificationStatus;
+import com.banking.notification.repository.NotificationIdempotencyKeyRepository;
+import com.banking.notification.repository.NotificationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * notifications_log doubles as the delivery outbox: ingest only inserts PENDING rows,
+ * and delivery workers claim them in short transactions that never span an SMTP call.
+ * Every outbox query is bounded to rows created within {@code notification.outbox.active-window-days},
+ * so PostgreSQL only scans the most recent monthly partitions.
+ */
+@Service
+public class NotificationOutbox {
+
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private final NotificationRepository notificationRepository;
+    private final RecipientVault recipientVault;
+    private final NotificationIdempotencyKeyRepository idempotencyKeyRepository;
+    private final NotificationStatistics statistics;
+    private final long leaseMs;
+    private final int maxAttempts;
+    private final double baseDelaySeconds;
+    private final double maxDelaySeconds;
+    private final Duration activeWindow;
+
+    public NotificationOutbox(NotificationRepository notificationRepository,
+                              RecipientVault recipientVault,
+                              NotificationIdempotencyKeyRepository idempotencyKeyRepository,
+                              NotificationStatistics statistics,
+                              @Value("${notification.outbox.lease-ms}") long leaseMs,
+                              @Value("${notification.retry.max-attempts}") int maxAttempts,
+                              @Value("${notification.retry.base-delay-ms}") long baseDelayMs,
+                              @Value("${notification.retry.max-delay-ms}") long maxDelayMs,
+                              @Value("${notification.outbox.active-window-days}") int activeWindowDays) {
+        this.notificationRepository = notificationRepository;
+        this.recipientVault = recipientVault;
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.statistics = statistics;
+        this.leaseMs = leaseMs;
+        this.maxAttempts = maxAttempts;
+        this.baseDelaySeconds = baseDelayMs / 1000.0;
+        this.maxDelaySeconds = maxDelayMs / 1000.0;
+        this.activeWindow = Duration.ofDays(activeWindowDays);
+    }
+
+    /**
+     * Inserts all entries in one transaction. Ids come from a pooled sequence, so Hibernate
+     * can send both the notification and the recipient inserts as JDBC batches. For entries
+     * marked {@code deduplicate} an idempotency key is inserted too; if one already exists the
+     * commit fails with a DataIntegrityViolationException and nothing is queued.
+     */
+    @Transactional
+    public List<Notification> enqueueAll(List<OutboxEntry> entries) {
+        return insert(entries);
+    }
+
+    private List<Notification> insert(List<OutboxEntry> entries) {
+        List<Notification> notifications = new ArrayList<>(entries.size());
+        for (OutboxEntry entry : entries) {
+            entry.notification().setStatus(NotificationStatus.PENDING);
+            notifications.add(entry.notification());
+        }
+        List<Notification> saved = notificationRepository.saveAll(notifications);
+        List<NotificationRecipient> recipients = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            NotificationRecipient recipient = entries.get(i).recipient();
+            recipient.setNotificationId(saved.get(i).getId());
+            recipients.add(recipient);
+        }
+        recipientVault.storeAll(recipients);
+
+        List<NotificationIdempotencyKey> keys = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i++) {
+            if (entries.get(i).deduplicate()) {
+                keys.add(new NotificationIdempotencyKey(saved.get(i)));
+            }
+        }
+        if (!keys.isEmpty()) {
+            idempotencyKeyRepository.saveAll(keys);
+        }
+        afterCommit(() -> saved.forEach(notification -> statistics.transition(notification, null, NotificationStatus.PENDING)));
+        return saved;
+    }
+
+    /**
+     * Locks up to {@code limit} deliverable rows with SKIP LOCKED and marks them PROCESSING,
+     * so other instances draining the same table never pick the same rows. Rows whose claim
+     * is older than the lease are considered abandoned by a crashed worker and are reclaimed.
+     * Only rows at {@code lowestPriority} or more urgent are claimed, most urgent first.
+     */
+    @Transactional
+    public List<OutboxEntry> claim(NotificationChannel channel, NotificationPriority lowestPriority, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Notification> notifications = notificationRepository.lockDeliverable(
+                channel.name(), lowestPriority.ordinal(), now.minus(Duration.ofMillis(leaseMs)), activeSince(now), limit);
+        return markClaimed(notifications, NotificationStatus.PROCESSING, now);
+    }
+
+    /**
+     * Claims FAILED rows whose next attempt is due and marks them RETRYING. RETRYING rows
+     * past their lease are reclaimed the same way as abandoned PROCESSING rows.
+     */
+    @Transactional
+    public List<OutboxEntry> claimDueRetries(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Notification> notifications = notificationRepository.lockDueRetries(
+                now, now.minus(Duration.ofMillis(leaseMs)), activeSince(now), limit);
+        return markClaimed(notifications, NotificationStatus.RETRYING, now);
+    }
+
+    /**
+     * Claims FAILED rows that failed before {@code failedBefore}, ignoring their backoff.
+     * Rows that fail again while a manual retry runs are not picked up a second time.
+     */
+    @Transactional
+    public List<OutboxEntry> claimFailedBefore(LocalDateTime failedBefore, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Notification> notifications = notificationRepository.lockFailedBefore(failedBefore, activeSince(now), limit);
+        return markClaimed(notifications, NotificationStatus.RETRYING, now);
+    }
+
+    /**
+     * Whether one more failure of this claimed notification will mark it EXHAUSTED.
+     */
+    public boolean isLastAttempt(Notification notification) {
+        return notification.getAttemptCount() + 1 >= maxAttempts;
+    }
+
+    private List<OutboxEntry> markClaimed(List<Notification> notifications, NotificationStatus status, LocalDateTime now) {
+        if (notifications.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = notifications.stream().map(Notification::getId).toList();
+        Map<Long, NotificationRecipient> recipients = recipientVault.findAll(ids);
+        // Clears the persistence context, so the entities below are detached copies
+        notificationRepository.markClaimed(ids, status, now, activeSince(now));
+
+        List<OutboxEntry> entries = new ArrayList<>(notifications.size());
+        List<NotificationStatus> previous = new ArrayList<>(notifications.size());
+        for (Notification notification : notifications) {
+            previous.add(notification.getStatus());
+            notification.setStatus(status);
+            notification.setClaimedAt(now);
+            entries.add(new OutboxEntry(notification, recipients.get(notification.getId())));
+        }
+        afterCommit(() -> {
+            for (int i = 0; i < notifications.size(); i++) {
+                statistics.transition(notifications.get(i), previous.get(i), status);
+            }
+        });
+        return entries;
+    }
+
+    @Transactional(readOnly = true)
+    public long countPending() {
+        return notificationRepository.countByStatusAndCreatedAtAfter(NotificationStatus.PENDING, activeSince(LocalDateTime.now()));
+    }
+
+    /**
+     * Writes back the outcome of claimed notifications: sent ones become SENT, failed ones FAILED
+     * with their next attempt scheduled, or EXHAUSTED on their last attempt. Rejected ones failed
+     * permanently and become EXHAUSTED right away.
+     */
+    @Transactional
+    public void recordOutcomes(List<Notification> sent, Map<String, List<Notification>> failedByError,
+                               Map<String, List<Notification>> rejectedByError) {
+        LocalDateTime now = LocalDateTime.now();
+        if (!sent.isEmpty()) {
+            notificationRepository.markSent(ids(sent), NotificationStatus.SENT, now, createdAfter(sent));
+        }
+        failedByError.forEach((error, failed) -> notificationRepository.markFailed(
+                ids(failed), truncate(error), now, maxAttempts, baseDelaySeconds, maxDelaySeconds, createdAfter(failed)));
+        // With one allowed attempt markFailed exhausts the row whatever its attempt count
+        rejectedByError.forEach((error, rejected) -> notificationRepository.markFailed(
+                ids(rejected), truncate(error), now, 1, baseDelaySeconds, maxDelaySeconds, createdAfter(rejected)));
+        afterCommit(() -> {
+            sent.forEach(notification -> statistics.transition(notification, notification.getStatus(), NotificationStatus.SENT));
+            failedByError.values().forEach(failed -> failed.forEach(notification -> statistics.transition(notification,
+                    notification.getStatus(), isLastAttempt(notification) ? NotificationStatus.EXHAUSTED : NotificationStatus.FAILED)));
+            rejectedByError.values().forEach(rejected -> rejected.forEach(notification -> statistics.transition(notification,
+                    notification.getStatus(), NotificationStatus.EXHAUSTED)));
+        });
+    }
+
+    private static List<Long> ids(Collection<Notification> notifications) {
+        return notifications.stream().map(Notification::getId).toList();
+    }
+
+    // Bounds an update to the partitions of rows already claimed. Unlike activeSince(now) it still
+    // matches a row claimed just before it slid out of the active window, which would otherwise stay
+    // PROCESSING and be sent again once its lease expired.
+    private static LocalDateTime createdAfter(Collection<Notification> notifications) {
+        return notifications.stream()
+                .map(Notification::getCreatedAt)
+                .min(Comparator.naturalOrder())
+                .orElseThrow()
+                .minusSeconds(1);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    // Rows older than this are neither claimed nor updated; they are assumed settled
+    private LocalDateTime activeSince(LocalDateTime now) {
+        return now.minus(activeWindow);
+    }
+
+    private String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+            return error;
+        }
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    public record OutboxEntry(Notification notification, NotificationRecipient recipient, boolean deduplicate) {
+
+        public OutboxEntry(Notification notification, NotificationRecipient recipient) {
+            this(notification, recipient, false);
+        }
+    }
+}
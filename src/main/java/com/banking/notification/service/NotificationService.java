@@ -2,21 +2,38 @@ package com.banking.notification.service;
 
 import com.banking.notification.dto.*;
 import com.banking.notification.entity.Notification;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface NotificationService {
 
     NotificationResponse sendTransactionNotification(TransactionNotificationRequest request);
 
+    int sendTransactionNotifications(List<TransactionNotificationRequest> requests);
+
+    /**
+     * For requests accepted earlier, e.g. replayed from the journal: {@code acceptedAt.get(i)} is when
+     * {@code requests.get(i)} was received, and becomes its notification's time and creation time.
+     */
+    int sendTransactionNotifications(List<TransactionNotificationRequest> requests, List<LocalDateTime> acceptedAt);
+
     NotificationResponse sendAccountStatusNotification(AccountUpdateEvent account);
 
-    List<Notification> getAllNotifications();
+    NotificationPage findNotifications(NotificationFilter filter, String cursor, Integer limit);
+
+    void exportNotifications(NotificationFilter filter, Consumer<NotificationSummary> sink);
 
     List<Notification> getRecentNotifications();
 
     Notification getNotificationById(Long id);
 
-    void retryFailedNotifications();
+    RetryJobStatus retryFailedNotifications();
+
+    Optional<RetryJobStatus> getRetryJob(String jobId);
+
+    NotificationStats getStats();
 
-    void processAccountUpdateNotification(AccountUpdateEvent event);
+    boolean processAccountUpdateNotifications(List<AccountUpdateEvent> events);
 }
@@ -3,21 +3,33 @@ package com.banking.notification.service;
 import com.banking.notification.dto.*;
 import com.banking.notification.entity.*;
 import com.banking.notification.repository.NotificationRepository;
-import io.micrometer.core.instrument.MeterRegistry;
-import io.micrometer.core.instrument.Timer;
+import com.banking.notification.template.NotificationTemplateEngine;
+import com.banking.notification.template.RenderedMessage;
+import com.banking.notification.template.TemplateModel;
+import com.banking.notification.template.TemplateVariable;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.mail.MailException;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Retryable;
+import org.hibernate.exception.ConstraintViolationException;
+import org.postgresql.util.PSQLException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -25,121 +37,178 @@ import java.util.List;
 public class NotificationServiceImpl implements NotificationService {
 
     private final NotificationRepository notificationRepository;
-    private final JavaMailSender mailSender;
+    private final NotificationOutbox outbox;
+    private final OutboxDeliveryWorker deliveryWorker;
+    private final CustomerDetailsCache customerDetailsCache;
+    private final NotificationTemplateEngine templateEngine;
     private final MetricsService metricsService;
-    private final MeterRegistry meterRegistry;
-    private final CustomerServiceClient customerServiceClient;
+    private final RetryScheduler retryScheduler;
+    private final IdempotencyGuard idempotencyGuard;
+    private final NotificationStatistics statistics;
+    private final PiiMasker piiMasker;
+
+    @Value("${notification.channels.transaction}")
+    private NotificationChannel transactionChannel;
+
+    @Value("${notification.channels.account-status}")
+    private NotificationChannel accountStatusChannel;
+
+    @Value("${notification.query.default-page-size}")
+    private int defaultPageSize;
+
+    @Value("${notification.query.max-page-size}")
+    private int maxPageSize;
 
     // High-value transaction threshold (₹50,000)
     private static final BigDecimal HIGH_VALUE_THRESHOLD = new BigDecimal("50000");
 
+    // Postgres unique_violation, and the default name of notification_idempotency_keys' primary key
+    private static final String UNIQUE_VIOLATION = "23505";
+    private static final String IDEMPOTENCY_KEY_CONSTRAINT = "notification_idempotency_keys_pkey";
+
     // -- For event-driven Account update notifications -- //
+    // One customer's latest event per account, as coalesced by the account update listener
     @Override
-    public void processAccountUpdateNotification(AccountUpdateEvent event) {
+    public boolean processAccountUpdateNotifications(List<AccountUpdateEvent> events) {
+        Long customerId = events.get(0).getCustomerId();
         // Fetch customer details using customerId
-        CustomerServiceClient.CustomerDetails customer = customerServiceClient.fetchCustomerById(event.getCustomerId());
+        CustomerServiceClient.CustomerDetails customer = customerDetailsCache.getCustomer(customerId).orElse(null);
         if (customer == null || customer.getEmail() == null) {
-            log.warn("Customer not found or email missing for customerId {}", event.getCustomerId());
-            return;
+            log.warn("Customer not found or email missing for customerId {}", customerId);
+            return false;
         }
-        sendAccountStatusNotification(
-                event.getAccountId(),
-                event.getAccountNumber(),
-                event.getStatus(),
-                customer.getName(),
-                customer.getEmail(),
-                customer.getPhone()
-        );
+        if (events.size() == 1) {
+            AccountUpdateEvent event = events.get(0);
+            sendAccountStatusNotification(
+                    event.getAccountId(),
+                    event.getAccountNumber(),
+                    event.getStatus(),
+                    customer.getName(),
+                    customer.getEmail(),
+                    customer.getPhone()
+            );
+        } else {
+            sendAccountStatusDigest(customerId, events, customer);
+        }
+        return true;
+    }
+
+    private void sendAccountStatusDigest(Long customerId, List<AccountUpdateEvent> events, CustomerServiceClient.CustomerDetails customer) {
+        StringBuilder changes = new StringBuilder(events.size() * 32);
+        for (AccountUpdateEvent event : events) {
+            if (!changes.isEmpty()) {
+                changes.append('\n');
+            }
+            changes.append("- ");
+            if (event.getAccountNumber() != null) {
+                piiMasker.appendMasked(PiiMasker.Field.ACCOUNT_NUMBER, event.getAccountNumber(), changes);
+            }
+            changes.append(": ").append(event.getStatus());
+        }
+        TemplateModel model = new TemplateModel()
+                .set(TemplateVariable.CUSTOMER_NAME, customer.getName())
+                .set(TemplateVariable.ACCOUNT_CHANGES, changes);
+        List<NotificationOutbox.OutboxEntry> entries = new ArrayList<>(2);
+        for (NotificationChannel channel : resolveChannels(accountStatusChannel, customer.getPhone())) {
+            Notification notification = newNotification(NotificationType.ACCOUNT_STATUS_DIGEST, NotificationPriority.NORMAL,
+                    channel, customerId, customer.getEmail(), customer.getPhone(), model);
+            entries.add(new NotificationOutbox.OutboxEntry(notification,
+                    new NotificationRecipient(null, customer.getEmail(), customer.getPhone()), false));
+        }
+        enqueueAll(entries);
+        deliveryWorker.signal();
+        log.info("Queued account status digest of {} accounts for customer {} on {}", events.size(), customerId, channelsOf(entries));
     }
 
     // Used by event-driven or admin REST triggers
     public NotificationResponse sendAccountStatusNotification(Long accountId, String accountNumber, AccountStatus status, String customerName, String email, String phone) {
-        Notification notification = new Notification();
-        notification.setRecipientEmail(maskEmail(email));
-        notification.setRecipientPhone(maskPhone(phone));
-        notification.setNotificationType(determineAccountNotificationType(status));
-        notification.setChannel(NotificationChannel.EMAIL);
-        notification.setReferenceId(accountId);
-
-        String subject = "Account Status Update - " + accountNumber;
-        String message = buildAccountStatusMessage(customerName, accountNumber, status);
-        notification.setSubject(subject);
-        notification.setMessage(message);
-        notification.setStatus(NotificationStatus.PENDING);
-        notification = notificationRepository.save(notification);
-
-        try {
-            sendEmail(email, subject, message);
-            metricsService.incrementNotificationsSent("account-status");
-            notification.setStatus(NotificationStatus.SENT);
-            notification.setSentAt(LocalDateTime.now());
-            log.info("Sent account status notification for account {}", accountNumber);
-        } catch (Exception e) {
-            log.error("Failed to send account status notification for account {}", accountNumber, e);
-            metricsService.incrementNotificationsFailed("account-status");
-            notification.setStatus(NotificationStatus.FAILED);
-            notification.setErrorMessage(e.getMessage());
-            notification.setFailedAt(LocalDateTime.now());
+        NotificationType type = determineAccountNotificationType(status);
+        TemplateModel model = new TemplateModel()
+                .set(TemplateVariable.CUSTOMER_NAME, customerName)
+                .set(TemplateVariable.ACCOUNT_NUMBER, piiMasker.maskAccountNumber(accountNumber))
+                .set(TemplateVariable.RAW_ACCOUNT_NUMBER, accountNumber)
+                .set(TemplateVariable.ACCOUNT_STATUS, status);
+        List<NotificationOutbox.OutboxEntry> entries = new ArrayList<>(2);
+        for (NotificationChannel channel : resolveChannels(accountStatusChannel, phone)) {
+            Notification notification = newNotification(type, priorityOf(type, null), channel, accountId, email, phone, model);
+            // Not deduplicated: the reference is the account id, which legitimately repeats across status changes
+            entries.add(new NotificationOutbox.OutboxEntry(notification, new NotificationRecipient(null, email, phone), false));
         }
-        notification = notificationRepository.save(notification);
-        return new NotificationResponse(
-                notification.getId(),
-                notification.getStatus(),
-                "Account status notification processed"
-        );
+        List<Notification> notifications = enqueueAll(entries);
+        deliveryWorker.signal();
+        log.info("Queued account status notification for account {} on {}", accountNumber, channelsOf(entries));
+        return queued(notifications, "Account status notification queued for delivery");
     }
 
     // -- Transaction Notification (will need similar event-driven chaining for real decoupling!) -- //
     @Override
-    @Transactional
     public NotificationResponse sendTransactionNotification(TransactionNotificationRequest request) {
         log.info("Processing transaction notification for transaction ID: {}", request.getTransactionId());
-        boolean isHighValue = request.getAmount().compareTo(HIGH_VALUE_THRESHOLD) >= 0;
-        if (!isHighValue) {
+        if (!isHighValue(request)) {
             log.info("Transaction amount {} is below threshold. Skipping notification.", request.getAmount());
             return new NotificationResponse(null, NotificationStatus.PENDING, "Below threshold, no notification sent");
         }
-        Notification notification = new Notification();
-        notification.setRecipientEmail(maskEmail(request.getRecipientEmail()));
-        notification.setRecipientPhone(maskPhone(request.getRecipientPhone()));
-        notification.setNotificationType(NotificationType.HIGH_VALUE_TRANSACTION);
-        notification.setChannel(NotificationChannel.EMAIL);
-        notification.setReferenceId(request.getTransactionId());
-
-        String subject = "High-Value Transaction Alert - ₹" + request.getAmount();
-        String message = buildTransactionMessage(request);
-        notification.setSubject(subject);
-        notification.setMessage(message);
-        notification.setStatus(NotificationStatus.PENDING);
-        notification = notificationRepository.save(notification);
-
-        Timer.Sample sample = Timer.start(meterRegistry);
+        List<NotificationOutbox.OutboxEntry> entries = withoutDuplicates(transactionEntries(request, LocalDateTime.now()));
+        if (entries.isEmpty()) {
+            return duplicate(request);
+        }
+        List<Notification> notifications;
         try {
-            sendEmail(request.getRecipientEmail(), subject, message);
-            metricsService.incrementNotificationsSent("transaction");
-            sample.stop(metricsService.getNotificationLatencyTimer());
-            notification.setStatus(NotificationStatus.SENT);
-            notification.setSentAt(LocalDateTime.now());
-            log.info("Successfully sent notification for transaction ID: {}", request.getTransactionId());
-        } catch (Exception e) {
-            log.error("Failed to send notification for transaction ID: {}", request.getTransactionId(), e);
-            metricsService.incrementNotificationsFailed("transaction");
-            notification.setStatus(NotificationStatus.FAILED);
-            notification.setErrorMessage(e.getMessage());
-            notification.setFailedAt(LocalDateTime.now());
+            notifications = enqueueAll(entries);
+        } catch (DataIntegrityViolationException e) {
+            if (!isDuplicateKey(e)) {
+                throw e;
+            }
+            // Lost a race with another consumer, or the filter had not seen the key yet
+            return duplicate(request);
         }
-        notification = notificationRepository.save(notification);
-        return new NotificationResponse(
-                notification.getId(),
-                notification.getStatus(),
-                "Notification processed"
-        );
+        remember(entries);
+        deliveryWorker.signal();
+        log.info("Queued notification for transaction ID: {} on {}", request.getTransactionId(), channelsOf(entries));
+        return queued(notifications, "Notification queued for delivery");
+    }
+
+    // Batch listener path: one transaction and JDBC-batched inserts for the whole delivery
+    @Override
+    public int sendTransactionNotifications(List<TransactionNotificationRequest> requests) {
+        return sendTransactionNotifications(requests, Collections.nCopies(requests.size(), LocalDateTime.now()));
+    }
+
+    @Override
+    public int sendTransactionNotifications(List<TransactionNotificationRequest> requests, List<LocalDateTime> acceptedAt) {
+        List<NotificationOutbox.OutboxEntry> candidates = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            if (isHighValue(requests.get(i))) {
+                candidates.addAll(transactionEntries(requests.get(i), acceptedAt.get(i)));
+            }
+        }
+        List<NotificationOutbox.OutboxEntry> entries = withoutDuplicates(candidates);
+        log.info("{} new notifications for {} transactions in batch", entries.size(), requests.size());
+        if (entries.isEmpty()) {
+            return 0;
+        }
+        int queued;
+        try {
+            enqueueAll(entries);
+            queued = entries.size();
+        } catch (DataIntegrityViolationException e) {
+            // Inside a caller's transaction, e.g. the journal replayer's, the failed insert already
+            // doomed it, so the one-by-one retry would fail too; the caller isolates the entries itself
+            if (!isDuplicateKey(e) || TransactionSynchronizationManager.isActualTransactionActive()) {
+                throw e;
+            }
+            // A key appeared concurrently; queue the entries one by one so only the duplicates are dropped
+            queued = enqueueIndividually(entries);
+        }
+        remember(entries);
+        deliveryWorker.signal();
+        return queued;
     }
 
     @Override
     public NotificationResponse sendAccountStatusNotification(AccountUpdateEvent account) {
         // Fetch customer details just as in event flow
-        CustomerServiceClient.CustomerDetails customer = customerServiceClient.fetchCustomerById(account.getCustomerId());
+        CustomerServiceClient.CustomerDetails customer = customerDetailsCache.getCustomer(account.getCustomerId()).orElse(null);
         if (customer == null || customer.getEmail() == null) {
             return new NotificationResponse(null, NotificationStatus.FAILED, "Customer info not found");
         }
@@ -155,8 +224,32 @@ public class NotificationServiceImpl implements NotificationService {
 
     // Query and Retry
     @Override
-    public List<Notification> getAllNotifications() {
-        return notificationRepository.findAll();
+    @Transactional(readOnly = true)
+    public NotificationPage findNotifications(NotificationFilter filter, String cursor, Integer limit) {
+        int pageSize = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+        LocalDateTime afterCreatedAt = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] position = decodeCursor(cursor);
+            afterCreatedAt = LocalDateTime.parse(position[0]);
+            afterId = Long.parseLong(position[1]);
+        }
+        // One extra row tells whether another page exists without a count query
+        List<NotificationSummary> rows = notificationRepository.findSummaries(filter, afterCreatedAt, afterId, pageSize + 1);
+        if (rows.size() <= pageSize) {
+            return new NotificationPage(rows, null, false);
+        }
+        List<NotificationSummary> page = rows.subList(0, pageSize);
+        NotificationSummary last = page.get(pageSize - 1);
+        return new NotificationPage(new ArrayList<>(page), encodeCursor(last.getCreatedAt(), last.getId()), true);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportNotifications(NotificationFilter filter, Consumer<NotificationSummary> sink) {
+        try (Stream<NotificationSummary> rows = notificationRepository.streamSummaries(filter)) {
+            rows.forEach(sink);
+        }
     }
 
     @Override
@@ -171,110 +264,201 @@ public class NotificationServiceImpl implements NotificationService {
     }
 
     @Override
-    @Transactional
-    public void retryFailedNotifications() {
-        List<Notification> failedNotifications = notificationRepository.findByStatus(NotificationStatus.FAILED);
-        log.info("Retrying {} failed notifications", failedNotifications.size());
-        for (Notification notification : failedNotifications) {
-            try {
-                sendEmail(
-                        unmaskEmail(notification.getRecipientEmail()),
-                        notification.getSubject(),
-                        notification.getMessage()
-                );
-                notification.setStatus(NotificationStatus.SENT);
-                notification.setSentAt(LocalDateTime.now());
-                notificationRepository.save(notification);
-            } catch (Exception e) {
-                log.error("Retry failed for notification ID: {}", notification.getId(), e);
+    public RetryJobStatus retryFailedNotifications() {
+        // Runs in the background in bounded chunks; progress is polled by job id
+        return retryScheduler.submitJob();
+    }
+
+    @Override
+    public Optional<RetryJobStatus> getRetryJob(String jobId) {
+        return retryScheduler.getJob(jobId);
+    }
+
+    @Override
+    public NotificationStats getStats() {
+        return statistics.snapshot();
+    }
+
+    // --- Helper Methods ---
+
+    private static String encodeCursor(LocalDateTime createdAt, Long id) {
+        String position = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (position.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor");
             }
+            LocalDateTime.parse(position[0]);
+            Long.parseLong(position[1]);
+            return position;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
         }
     }
 
-    // --- Helper Methods ---
+    // Timed around the transactional call so the commit is included
+    private List<Notification> enqueueAll(List<NotificationOutbox.OutboxEntry> entries) {
+        long start = System.nanoTime();
+        List<Notification> saved = outbox.enqueueAll(entries);
+        metricsService.recordDbSaveLatency(System.nanoTime() - start);
+        return saved;
+    }
 
-    @Retryable(
-            value = {MailException.class},
-            maxAttempts = 3,
-            backoff = @Backoff(delay = 2000, multiplier = 2)
-    )
-    private void sendEmail(String to, String subject, String body) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(to);
-        message.setSubject(subject);
-        message.setText(body);
-        message.setFrom("noreply@banking.com");
-        mailSender.send(message);
+    private int enqueueIndividually(List<NotificationOutbox.OutboxEntry> entries) {
+        int queued = 0;
+        for (NotificationOutbox.OutboxEntry entry : entries) {
+            // State from the rolled-back transaction is reset, or Hibernate would try to merge
+            entry.notification().setId(null);
+            entry.recipient().setPersisted(false);
+            try {
+                outbox.enqueueAll(List.of(entry));
+                queued++;
+            } catch (DataIntegrityViolationException e) {
+                if (!isDuplicateKey(e)) {
+                    throw e;
+                }
+                log.info("Skipping duplicate {} notification for reference {}",
+                        entry.notification().getChannel(), entry.notification().getReferenceId());
+            }
+        }
+        return queued;
     }
 
-    private String buildTransactionMessage(TransactionNotificationRequest request) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd-MMM-yyyy HH:mm");
-        return String.format("""
-                Dear %s,
-                This is to inform you about a high-value transaction on your account.
-                Transaction Details:
-                - Account Number: %s
-                - Amount: ₹%s
-                - Transaction Type: %s
-                - Transaction ID: %s
-                - Date & Time: %s
-                If you did not authorize this transaction, please contact us immediately.
-                Best Regards,
-                Banking Team
-                """,
-                request.getCustomerName(),
-                maskAccountNumber(request.getAccountNumber()),
-                request.getAmount(),
-                request.getTransactionType(),
-                request.getTransactionId(),
-                LocalDateTime.now().format(formatter)
-        );
+    /**
+     * EMAIL, SMS or both. BOTH becomes one row per channel, delivered independently by that
+     * channel's lane. Without a phone number SMS falls back to email.
+     */
+    private List<NotificationChannel> resolveChannels(NotificationChannel requested, String phone) {
+        boolean hasPhone = phone != null && !phone.isBlank();
+        if (requested == null || requested == NotificationChannel.EMAIL || !hasPhone) {
+            return List.of(NotificationChannel.EMAIL);
+        }
+        if (requested == NotificationChannel.SMS) {
+            return List.of(NotificationChannel.SMS);
+        }
+        return List.of(NotificationChannel.EMAIL, NotificationChannel.SMS);
     }
 
-    private String buildAccountStatusMessage(String customerName, String accountNumber, AccountStatus status) {
-        return String.format("""
-                Dear %s,
-                Your account status has been updated.
-                Account Details:
-                - Account Number: %s
-                - New Status: %s
-                If you have any questions, please contact our customer service.
-                Best Regards,
-                Banking Team
-                """,
-                customerName,
-                maskAccountNumber(accountNumber),
-                status
-        );
+    // Stamped with the time the request was accepted, which is earlier than now when it was journaled first
+    private List<NotificationOutbox.OutboxEntry> transactionEntries(TransactionNotificationRequest request, LocalDateTime acceptedAt) {
+        TemplateModel model = new TemplateModel()
+                .set(TemplateVariable.CUSTOMER_NAME, request.getCustomerName())
+                .set(TemplateVariable.ACCOUNT_NUMBER, piiMasker.maskAccountNumber(request.getAccountNumber()))
+                .set(TemplateVariable.AMOUNT, request.getAmount())
+                .set(TemplateVariable.TRANSACTION_TYPE, request.getTransactionType())
+                .set(TemplateVariable.TRANSACTION_ID, request.getTransactionId())
+                .set(TemplateVariable.DATE_TIME, acceptedAt);
+        List<NotificationOutbox.OutboxEntry> entries = new ArrayList<>(2);
+        for (NotificationChannel channel : resolveChannels(transactionChannel, request.getRecipientPhone())) {
+            Notification notification = newNotification(NotificationType.HIGH_VALUE_TRANSACTION,
+                    priorityOf(NotificationType.HIGH_VALUE_TRANSACTION, request.getAmount()), channel, request.getTransactionId(), request.getRecipientEmail(), request.getRecipientPhone(), model);
+            notification.setCreatedAt(acceptedAt);
+            entries.add(new NotificationOutbox.OutboxEntry(
+                    notification,
+                    new NotificationRecipient(null, request.getRecipientEmail(), request.getRecipientPhone()),
+                    request.getTransactionId() != null
+            ));
+        }
+        return entries;
+    }
+
+    private Notification newNotification(NotificationType type, NotificationPriority priority, NotificationChannel channel,
+                                         Long referenceId, String email, String phone, TemplateModel model) {
+        Notification notification = new Notification();
+        notification.setRecipientEmail(piiMasker.maskEmail(email));
+        notification.setRecipientPhone(piiMasker.maskPhone(phone));
+        notification.setNotificationType(type);
+        notification.setPriority(priority);
+        notification.setChannel(channel);
+        notification.setReferenceId(referenceId);
+        RenderedMessage rendered = templateEngine.render(type, channel, model);
+        notification.setSubject(rendered.subject());
+        notification.setMessage(rendered.body());
+        return notification;
     }
 
-    private String maskAccountNumber(String accountNumber) {
-        if (accountNumber == null || accountNumber.length() < 4) {
-            return accountNumber;
+    // Drops entries whose idempotency key is already stored or repeated earlier in the list
+    private List<NotificationOutbox.OutboxEntry> withoutDuplicates(List<NotificationOutbox.OutboxEntry> entries) {
+        Map<IdempotencyKeyId, NotificationOutbox.OutboxEntry> keyed = new LinkedHashMap<>();
+        for (NotificationOutbox.OutboxEntry entry : entries) {
+            if (entry.deduplicate()) {
+                keyed.putIfAbsent(IdempotencyGuard.keyOf(entry.notification()), entry);
+            }
         }
-        return "XXXX-XXXX-" + accountNumber.substring(accountNumber.length() - 4);
+        if (keyed.isEmpty()) {
+            return entries;
+        }
+        keyed.keySet().removeAll(idempotencyGuard.findExisting(keyed.keySet()));
+        List<NotificationOutbox.OutboxEntry> unique = new ArrayList<>(entries.size());
+        for (NotificationOutbox.OutboxEntry entry : entries) {
+            if (!entry.deduplicate() || keyed.get(IdempotencyGuard.keyOf(entry.notification())) == entry) {
+                unique.add(entry);
+            }
+        }
+        return unique;
     }
 
-    private String maskEmail(String email) {
-        if (email == null || !email.contains("@")) {
-            return email;
+    private void remember(List<NotificationOutbox.OutboxEntry> entries) {
+        for (NotificationOutbox.OutboxEntry entry : entries) {
+            if (entry.deduplicate()) {
+                idempotencyGuard.remember(IdempotencyGuard.keyOf(entry.notification()));
+            }
         }
-        String[] parts = email.split("@");
-        String username = parts[0];
-        String masked = username.substring(0, Math.min(2, username.length())) + "***";
-        return masked + "@" + parts[1];
     }
 
-    private String unmaskEmail(String maskedEmail) {
-        // Placeholder: In production, store unmasked email separately
-        return maskedEmail;
+    private static List<NotificationChannel> channelsOf(List<NotificationOutbox.OutboxEntry> entries) {
+        return entries.stream().map(entry -> entry.notification().getChannel()).toList();
     }
 
-    private String maskPhone(String phone) {
-        if (phone == null || phone.length() < 4) {
-            return phone;
+    // A unique violation (SQLState 23505) of the idempotency key's primary key. Hibernate names the constraint for
+    // single inserts; a failed JDBC batch only carries it on the driver's chained exceptions
+    private static boolean isDuplicateKey(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return UNIQUE_VIOLATION.equals(violation.getSQLState())
+                        && IDEMPOTENCY_KEY_CONSTRAINT.equalsIgnoreCase(violation.getConstraintName());
+            }
+            if (cause instanceof SQLException sql) {
+                for (SQLException next = sql; next != null; next = next.getNextException()) {
+                    if (next instanceof PSQLException psql && psql.getServerErrorMessage() != null) {
+                        return UNIQUE_VIOLATION.equals(psql.getSQLState())
+                                && IDEMPOTENCY_KEY_CONSTRAINT.equalsIgnoreCase(psql.getServerErrorMessage().getConstraint());
+                    }
+                }
+            }
         }
-        return "******" + phone.substring(phone.length() - 4);
+        return false;
+    }
+
+    // Reports every channel's row, not just the first one
+    private static NotificationResponse queued(List<Notification> notifications, String message) {
+        Notification first = notifications.get(0);
+        return new NotificationResponse(first.getId(), first.getStatus(), message,
+                notifications.stream().map(Notification::getId).toList());
+    }
+
+    private NotificationResponse duplicate(TransactionNotificationRequest request) {
+        log.info("Transaction {} already has a queued notification, skipping duplicate", request.getTransactionId());
+        return new NotificationResponse(null, null, "Duplicate notification, already queued");
+    }
+
+    private boolean isHighValue(TransactionNotificationRequest request) {
+        return request.getAmount() != null && request.getAmount().compareTo(HIGH_VALUE_THRESHOLD) >= 0;
+    }
+
+    // Transaction alerts at or above the high-value threshold may be fraud the customer has to react to
+    static NotificationPriority priorityOf(NotificationType type, BigDecimal amount) {
+        boolean transactionAlert = switch (type) {
+            case HIGH_VALUE_TRANSACTION, TRANSACTION_ALERT, WITHDRAWAL_ALERT, TRANSFER_ALERT -> true;
+            default -> false;
+        };
+        return transactionAlert && amount != null && amount.compareTo(HIGH_VALUE_THRESHOLD) >= 0
+                ? NotificationPriority.HIGH
+                : NotificationPriority.NORMAL;
     }
 
     private NotificationType determineAccountNotificationType(AccountStatus status) {
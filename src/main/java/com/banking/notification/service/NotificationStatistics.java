@@ -0,0 +1,156 @@
+package com.banking.notification.service;
+
+import com.banking.notification.dto.NotificationStats;
+import com.banking.notification.entity.Notification;
+import com.banking.notification.entity.NotificationChannel;
+import com.banking.notification.entity.NotificationStatus;
+import com.banking.notification.entity.NotificationType;
+import com.banking.notification.repository.NotificationRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory notification counts, so dashboards never run COUNT queries against notifications_log.
+ * <p>
+ * Current counts are striped {@link LongAdder}s per status, type and channel, moved on every status
+ * change the outbox commits. Transitions into each status are also counted in rolling windows for
+ * the last minute, hour and day. The counts are seeded from one GROUP BY query at startup and
+ * corrected with the same query every {@code reconcile-interval-ms}. That picks up rows written by
+ * other instances and dropped by retention. The rolling windows only cover this instance.
+ */
+@Component
+@Slf4j
+public class NotificationStatistics {
+
+    private static final NotificationStatus[] STATUSES = NotificationStatus.values();
+    private static final NotificationType[] TYPES = NotificationType.values();
+    private static final NotificationChannel[] CHANNELS = NotificationChannel.values();
+
+    private final NotificationRepository notificationRepository;
+    private final long reconcileIntervalMs;
+    // [status][type][channel]
+    private final LongAdder[][][] counts;
+    // [window][status]: last minute in seconds, last hour in minutes, last day in hours
+    private final RollingWindow[][] windows;
+    private final ScheduledExecutorService reconciler;
+    private volatile LocalDateTime reconciledAt;
+
+    public NotificationStatistics(NotificationRepository notificationRepository,
+                                  @Value("${notification.stats.reconcile-interval-ms}") long reconcileIntervalMs) {
+        this.notificationRepository = notificationRepository;
+        this.reconcileIntervalMs = reconcileIntervalMs;
+        this.counts = new LongAdder[STATUSES.length][TYPES.length][CHANNELS.length];
+        for (LongAdder[][] byType : counts) {
+            for (LongAdder[] byChannel : byType) {
+                for (int i = 0; i < byChannel.length; i++) {
+                    byChannel[i] = new LongAdder();
+                }
+            }
+        }
+        this.windows = new RollingWindow[3][STATUSES.length];
+        for (int i = 0; i < STATUSES.length; i++) {
+            windows[0][i] = new RollingWindow(TimeUnit.SECONDS.toMillis(1), 60);
+            windows[1][i] = new RollingWindow(TimeUnit.MINUTES.toMillis(1), 60);
+            windows[2][i] = new RollingWindow(TimeUnit.HOURS.toMillis(1), 24);
+        }
+        this.reconciler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stats-reconciler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        reconcile();
+        if (reconcileIntervalMs > 0) {
+            reconciler.scheduleWithFixedDelay(this::reconcile, reconcileIntervalMs, reconcileIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        reconciler.shutdownNow();
+    }
+
+    /**
+     * Records a committed status change; {@code from} is null for a newly inserted row.
+     */
+    public void transition(Notification notification, NotificationStatus from, NotificationStatus to) {
+        int type = notification.getNotificationType().ordinal();
+        int channel = notification.getChannel().ordinal();
+        if (from != null) {
+            counts[from.ordinal()][type][channel].decrement();
+        }
+        counts[to.ordinal()][type][channel].increment();
+        long now = System.currentTimeMillis();
+        for (RollingWindow[] window : windows) {
+            window[to.ordinal()].increment(now);
+        }
+    }
+
+    public NotificationStats snapshot() {
+        Map<NotificationStatus, Long> byStatus = new EnumMap<>(NotificationStatus.class);
+        Map<NotificationType, Long> byType = new EnumMap<>(NotificationType.class);
+        Map<NotificationChannel, Long> byChannel = new EnumMap<>(NotificationChannel.class);
+        long total = 0;
+        for (NotificationStatus status : STATUSES) {
+            for (NotificationType type : TYPES) {
+                for (NotificationChannel channel : CHANNELS) {
+                    long count = counts[status.ordinal()][type.ordinal()][channel.ordinal()].sum();
+                    byStatus.merge(status, count, Long::sum);
+                    byType.merge(type, count, Long::sum);
+                    byChannel.merge(channel, count, Long::sum);
+                    total += count;
+                }
+            }
+        }
+        long now = System.currentTimeMillis();
+        return new NotificationStats(total, byStatus, byType, byChannel,
+                windowSums(0, now), windowSums(1, now), windowSums(2, now), reconciledAt);
+    }
+
+    // Shifts each adder by its difference to the database; transitions racing the query are fixed next time
+    void reconcile() {
+        try {
+            long[][][] actual = new long[STATUSES.length][TYPES.length][CHANNELS.length];
+            List<Object[]> rows = notificationRepository.countByStatusTypeAndChannel();
+            for (Object[] row : rows) {
+                actual[((NotificationStatus) row[0]).ordinal()][((NotificationType) row[1]).ordinal()][((NotificationChannel) row[2]).ordinal()]
+                        = ((Number) row[3]).longValue();
+            }
+            for (int s = 0; s < STATUSES.length; s++) {
+                for (int t = 0; t < TYPES.length; t++) {
+                    for (int c = 0; c < CHANNELS.length; c++) {
+                        LongAdder adder = counts[s][t][c];
+                        adder.add(actual[s][t][c] - adder.sum());
+                    }
+                }
+            }
+            reconciledAt = LocalDateTime.now();
+            log.debug("Reconciled notification statistics from {} groups", rows.size());
+        } catch (RuntimeException e) {
+            log.error("Failed to reconcile notification statistics", e);
+        }
+    }
+
+    private Map<NotificationStatus, Long> windowSums(int window, long now) {
+        Map<NotificationStatus, Long> sums = new EnumMap<>(NotificationStatus.class);
+        for (NotificationStatus status : STATUSES) {
+            sums.put(status, windows[window][status.ordinal()].sum(now));
+        }
+        return sums;
+    }
+}
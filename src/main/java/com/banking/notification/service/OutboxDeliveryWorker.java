@@ -0,0 +1,255 @@
+package com.banking.notification.service;
+
+import com.banking.notification.channel.ChannelRouter;
+import com.banking.notification.channel.NotificationChannelProvider;
+import com.banking.notification.entity.Notification;
+import com.banking.notification.exception.PermanentDeliveryException;
+import com.banking.notification.entity.NotificationChannel;
+import com.banking.notification.entity.NotificationPriority;
+import com.banking.notification.service.NotificationOutbox.OutboxEntry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Drains the notification outbox with one lane per channel provider. Each lane's workers claim
+ * PENDING rows of their channel in batches, hand them to the {@link ChannelRouter} and move on;
+ * outcomes are written back in bulk once the whole batch has completed. Claimed-but-unfinished
+ * rows are capped per lane by the provider's {@code max-in-flight}, so a slow channel can only
+ * stall its own lane. Each channel also gets a priority lane with its own workers and
+ * {@code reserved-in-flight} slots that only claims HIGH rows, so urgent alerts never queue
+ * behind a full standard lane; the standard lane claims HIGH rows first as well.
+ */
+@Component
+@Slf4j
+public class OutboxDeliveryWorker {
+
+    private final NotificationOutbox outbox;
+    private final ChannelRouter channelRouter;
+    private final MetricsService metricsService;
+    private final int workerCount;
+    private final int priorityWorkerCount;
+    private final int batchSize;
+    private final long pollIntervalMs;
+    private final List<Lane> lanes = new ArrayList<>();
+    private final ExecutorService completionExecutor;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition workAvailable = lock.newCondition();
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    public OutboxDeliveryWorker(NotificationOutbox outbox,
+                                ChannelRouter channelRouter,
+                                MetricsService metricsService,
+                                @Value("${notification.outbox.workers}") int workerCount,
+                                @Value("${notification.outbox.batch-size}") int batchSize,
+                                @Value("${notification.outbox.poll-interval-ms}") long pollIntervalMs,
+                                @Value("${notification.priority.workers}") int priorityWorkerCount,
+                                @Value("${notification.priority.reserved-in-flight}") int reservedInFlight) {
+        this.outbox = outbox;
+        this.channelRouter = channelRouter;
+        this.metricsService = metricsService;
+        this.workerCount = workerCount;
+        this.priorityWorkerCount = priorityWorkerCount;
+        this.batchSize = batchSize;
+        this.pollIntervalMs = pollIntervalMs;
+        for (NotificationChannelProvider provider : channelRouter.providers()) {
+            addLane(provider.channel(), NotificationPriority.NORMAL, workerCount, Math.max(provider.maxInFlight(), batchSize));
+            if (priorityWorkerCount > 0) {
+                addLane(provider.channel(), NotificationPriority.HIGH, priorityWorkerCount, Math.max(reservedInFlight, batchSize));
+            }
+        }
+        int completionThreads = lanes.stream().mapToInt(lane -> lane.workers).sum();
+        this.completionExecutor = Executors.newFixedThreadPool(Math.max(1, completionThreads), runnable -> {
+            Thread thread = new Thread(runnable, "outbox-completion");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        for (Lane lane : lanes) {
+            String prefix = "outbox-delivery-" + lane.channel.name().toLowerCase(Locale.ROOT)
+                    + (lane.priority == NotificationPriority.HIGH ? "-priority-" : "-");
+            for (int i = 0; i < lane.workers; i++) {
+                Thread worker = new Thread(() -> runWorker(lane), prefix + i);
+                worker.setDaemon(true);
+                worker.start();
+                workers.add(worker);
+            }
+        }
+        log.info("Started {} outbox delivery workers and {} priority workers per channel for {} (batch size {})",
+                workerCount, priorityWorkerCount, channelRouter.providers().stream().map(NotificationChannelProvider::channel).toList(), batchSize);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        signal();
+        for (Thread worker : workers) {
+            worker.join(pollIntervalMs * 2);
+        }
+        completionExecutor.shutdown();
+        completionExecutor.awaitTermination(pollIntervalMs * 2, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Wakes idle workers after new rows were committed, so delivery does not wait for the next poll.
+     */
+    public void signal() {
+        lock.lock();
+        try {
+            workAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Highest in-flight fill ratio across the channel lanes, from 0 to 1.
+     */
+    public double maxUtilization() {
+        double max = 0;
+        for (Lane lane : lanes) {
+            max = Math.max(max, (double) lane.inFlight() / lane.capacity);
+        }
+        return max;
+    }
+
+    private void runWorker(Lane lane) {
+        while (running) {
+            try {
+                lane.permits.acquire(batchSize);
+                List<OutboxEntry> batch;
+                try {
+                    batch = outbox.claim(lane.channel, lane.priority, batchSize);
+                } catch (RuntimeException e) {
+                    lane.permits.release(batchSize);
+                    log.error("Failed to claim {} notifications from the outbox", lane.channel, e);
+                    awaitWork();
+                    continue;
+                }
+                lane.permits.release(batchSize - batch.size());
+                if (batch.isEmpty()) {
+                    awaitWork();
+                    continue;
+                }
+                deliver(lane, batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void awaitWork() throws InterruptedException {
+        lock.lock();
+        try {
+            if (running) {
+                workAvailable.await(pollIntervalMs, TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void deliver(Lane lane, List<OutboxEntry> batch) {
+        List<CompletableFuture<Void>> results = new ArrayList<>(batch.size());
+        for (OutboxEntry entry : batch) {
+            results.add(channelRouter.send(entry.notification(), entry.recipient()));
+        }
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0]))
+                .whenCompleteAsync((ignored, error) -> complete(lane, batch, results), completionExecutor);
+    }
+
+    private void complete(Lane lane, List<OutboxEntry> batch, List<CompletableFuture<Void>> results) {
+        List<Notification> sent = new ArrayList<>();
+        Map<String, List<Notification>> failedByError = new HashMap<>();
+        Map<String, List<Notification>> rejectedByError = new HashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < batch.size(); i++) {
+            Notification notification = batch.get(i).notification();
+            CompletableFuture<Void> result = results.get(i);
+            if (!result.isCompletedExceptionally()) {
+                sent.add(notification);
+                metricsService.recordSent(notification.getNotificationType(), notification.getChannel());
+                if (notification.getCreatedAt() != null) {
+                    metricsService.recordQueueToSentLatency(notification.getPriority(),
+                            ChronoUnit.MILLIS.between(notification.getCreatedAt(), now));
+                }
+            } else {
+                Throwable error = unwrap(result.exceptionNow());
+                log.error("Failed to send {} notification {} for reference {}",
+                        notification.getChannel(), notification.getId(), notification.getReferenceId(), error);
+                (error instanceof PermanentDeliveryException ? rejectedByError : failedByError)
+                        .computeIfAbsent(String.valueOf(error.getMessage()), key -> new ArrayList<>())
+                        .add(notification);
+                metricsService.recordFailed(notification.getNotificationType(), notification.getChannel());
+            }
+        }
+        try {
+            outbox.recordOutcomes(sent, failedByError, rejectedByError);
+            log.info("Delivered {} outbox batch: {} sent, {} failed",
+                    lane.channel, sent.size(), batch.size() - sent.size());
+        } catch (RuntimeException e) {
+            // Rows stay PROCESSING and are reclaimed once their lease expires
+            log.error("Failed to record outcomes for {} notifications", batch.size(), e);
+        } finally {
+            lane.permits.release(batch.size());
+        }
+    }
+
+    private void addLane(NotificationChannel channel, NotificationPriority priority, int workers, int capacity) {
+        Lane lane = new Lane(channel, priority, workers, capacity);
+        lanes.add(lane);
+        metricsService.registerDeliveryInFlight(channel, priority, lane::inFlight);
+    }
+
+    private Throwable unwrap(Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            return error.getCause();
+        }
+        return error;
+    }
+
+    private static final class Lane {
+
+        private final NotificationChannel channel;
+        // Least urgent priority this lane claims
+        private final NotificationPriority priority;
+        private final int workers;
+        private final int capacity;
+        private final Semaphore permits;
+
+        private Lane(NotificationChannel channel, NotificationPriority priority, int workers, int capacity) {
+            this.channel = channel;
+            this.priority = priority;
+            this.workers = workers;
+            this.capacity = capacity;
+            this.permits = new Semaphore(capacity);
+        }
+
+        private int inFlight() {
+            return capacity - permits.availablePermits();
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.banking.notification.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Component;
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the monthly partitions of notifications_log in shape: creates partitions for the next
+ * {@code premake-months}, and for months older than {@code retention.months} detaches the
+ * partition, archives its rows to {@code <archive-dir>/notifications_log_YYYY_MM.csv.gz} with
+ * COPY, deletes the matching recipients and drops it. A partition that was detached but not
+ * dropped before a crash is picked up again on the next run.
+ * <p>
+ * Every instance schedules the job, but a run only goes ahead on the instance that gets a
+ * transaction-scoped advisory lock; the others skip it. The lock is held by a transaction of its own
+ * on a separate connection, so DETACH and DROP still commit right away and do not keep
+ * notifications_log locked while a partition is copied out.
+ */
+@Component
+@ConditionalOnProperty(name = "notification.retention.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class PartitionMaintenanceJob {
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("notifications_log_(\\d{4})_(\\d{2})");
+    // Arbitrary, but shared by every instance: "notiflog" in ASCII
+    private static final long LOCK_KEY = 0x6e6f7469666c6f67L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final int retentionMonths;
+    private final int premakeMonths;
+    private final Path archiveDir;
+    private final long intervalHours;
+    private final ScheduledExecutorService scheduler;
+
+    public PartitionMaintenanceJob(JdbcTemplate jdbcTemplate,
+                                   DataSource dataSource,
+                                   @Value("${notification.retention.months}") int retentionMonths,
+                                   @Value("${notification.retention.premake-months}") int premakeMonths,
+                                   @Value("${notification.retention.archive-dir}") String archiveDir,
+                                   @Value("${notification.retention.interval-hours}") long intervalHours) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+        this.retentionMonths = retentionMonths;
+        this.premakeMonths = premakeMonths;
+        this.archiveDir = Path.of(archiveDir);
+        this.intervalHours = intervalHours;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "partition-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::run, 0, intervalHours, TimeUnit.HOURS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    void run() {
+        try (Connection lockConnection = dataSource.getConnection()) {
+            lockConnection.setAutoCommit(false);
+            try {
+                if (tryLock(lockConnection)) {
+                    maintain();
+                } else {
+                    log.info("Partition maintenance is running on another instance; skipping this run");
+                }
+            } finally {
+                // Ends the transaction and with it the lock
+                lockConnection.rollback();
+            }
+        } catch (SQLException e) {
+            log.error("Partition maintenance could not take its lock", e);
+        }
+    }
+
+    private boolean tryLock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_try_advisory_xact_lock(?)")) {
+            statement.setLong(1, LOCK_KEY);
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() && result.getBoolean(1);
+            }
+        }
+    }
+
+    private void maintain() {
+        try {
+            createUpcomingPartitions();
+            YearMonth oldestKept = YearMonth.now().minusMonths(retentionMonths);
+            for (String partition : partitionsOlderThan(oldestKept)) {
+                archiveAndDrop(partition);
+            }
+            int keys = jdbcTemplate.update("DELETE FROM notification_idempotency_keys WHERE created_at < ?",
+                    oldestKept.atDay(1).atStartOfDay());
+            log.info("Partition maintenance done; deleted {} idempotency keys before {}", keys, oldestKept);
+        } catch (RuntimeException e) {
+            log.error("Partition maintenance failed", e);
+        }
+    }
+
+    private void createUpcomingPartitions() {
+        YearMonth month = YearMonth.now();
+        for (int i = 0; i <= premakeMonths; i++) {
+            jdbcTemplate.queryForObject("SELECT create_notifications_log_partition(?)", String.class, month.plusMonths(i).atDay(1));
+        }
+    }
+
+    // Attached or already detached monthly tables, oldest first
+    private List<String> partitionsOlderThan(YearMonth oldestKept) {
+        List<String> tables = jdbcTemplate.queryForList(
+                "SELECT tablename FROM pg_tables WHERE schemaname = current_schema() AND tablename LIKE 'notifications\\_log\\_%' ORDER BY tablename",
+                String.class);
+        return tables.stream()
+                .filter(table -> {
+                    Matcher matcher = PARTITION_NAME.matcher(table);
+                    return matcher.matches()
+                            && YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))).isBefore(oldestKept);
+                })
+                .toList();
+    }
+
+    private void archiveAndDrop(String partition) {
+        Boolean attached = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_inherits WHERE inhrelid = to_regclass(?))", Boolean.class, partition);
+        if (Boolean.TRUE.equals(attached)) {
+            // Briefly locks notifications_log; CONCURRENTLY is not allowed while a default partition exists
+            jdbcTemplate.execute("ALTER TABLE notifications_log DETACH PARTITION " + partition);
+        }
+        Path archive = archiveDir.resolve(partition + ".csv.gz");
+        long rows = copyOut(partition, archive);
+        int recipients = jdbcTemplate.update(
+                "DELETE FROM notification_recipients r USING " + partition + " p WHERE r.notification_id = p.id");
+        jdbcTemplate.execute("DROP TABLE " + partition);
+        log.info("Archived {} rows of {} to {} and dropped it ({} recipients deleted)", rows, partition, archive, recipients);
+    }
+
+    // Writes to a temporary file first so a half-written archive never replaces a good one
+    private long copyOut(String partition, Path archive) {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            Files.createDirectories(archiveDir);
+            Path temp = Files.createTempFile(archiveDir, partition, ".tmp");
+            long rows;
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+                rows = connection.unwrap(PGConnection.class).getCopyAPI()
+                        .copyOut("COPY " + partition + " TO STDOUT WITH (FORMAT csv, HEADER)", out);
+            }
+            Files.move(temp, archive, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return rows;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot archive " + partition + " to " + archive, e);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot copy out " + partition, e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.banking.notification.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Masks recipient details and account numbers before they are stored in notifications_log or
+ * rendered into a message. Each field has a policy: how many leading and trailing characters stay
+ * visible and the fixed mask that replaces the rest, so the masked value does not reveal the
+ * original length. Values too short to hide anything are replaced by the mask alone. Characters are
+ * counted by code point, so a surrogate pair is never cut in half. For emails only the part before
+ * the last '@' is masked.
+ * <p>
+ * Masking appends the visible parts straight from the input, without split, substring or regex;
+ * {@link #mask(Field, String)} allocates only the returned String and
+ * {@link #appendMasked(Field, CharSequence, StringBuilder)} nothing at all.
+ */
+@Component
+public class PiiMasker {
+
+    public enum Field {
+        EMAIL,
+        PHONE,
+        ACCOUNT_NUMBER
+    }
+
+    public record Policy(int keepLeading, int keepTrailing, String mask) {
+
+        public Policy {
+            if (keepLeading < 0 || keepTrailing < 0 || mask == null) {
+                throw new IllegalArgumentException("Masking policy needs non-negative visible counts and a mask");
+            }
+        }
+    }
+
+    private static final ThreadLocal<StringBuilder> BUFFERS = ThreadLocal.withInitial(() -> new StringBuilder(64));
+
+    // [field]
+    private final Policy[] policies = new Policy[Field.values().length];
+
+    public PiiMasker(@Value("${notification.masking.email.keep-leading}") int emailLeading,
+                     @Value("${notification.masking.email.keep-trailing}") int emailTrailing,
+                     @Value("${notification.masking.email.mask}") String emailMask,
+                     @Value("${notification.masking.phone.keep-leading}") int phoneLeading,
+                     @Value("${notification.masking.phone.keep-trailing}") int phoneTrailing,
+                     @Value("${notification.masking.phone.mask}") String phoneMask,
+                     @Value("${notification.masking.account-number.keep-leading}") int accountLeading,
+                     @Value("${notification.masking.account-number.keep-trailing}") int accountTrailing,
+                     @Value("${notification.masking.account-number.mask}") String accountMask) {
+        policies[Field.EMAIL.ordinal()] = new Policy(emailLeading, emailTrailing, emailMask);
+        policies[Field.PHONE.ordinal()] = new Policy(phoneLeading, phoneTrailing, phoneMask);
+        policies[Field.ACCOUNT_NUMBER.ordinal()] = new Policy(accountLeading, accountTrailing, accountMask);
+    }
+
+    public String maskEmail(String email) {
+        return mask(Field.EMAIL, email);
+    }
+
+    public String maskPhone(String phone) {
+        return mask(Field.PHONE, phone);
+    }
+
+    public String maskAccountNumber(String accountNumber) {
+        return mask(Field.ACCOUNT_NUMBER, accountNumber);
+    }
+
+    public String mask(Field field, String value) {
+        if (value == null || value.isEmpty()) {
+            return value;
+        }
+        StringBuilder out = BUFFERS.get();
+        out.setLength(0);
+        appendMasked(field, value, out);
+        return out.toString();
+    }
+
+    /**
+     * Appends the masked form of {@code value} to {@code out}.
+     */
+    public void appendMasked(Field field, CharSequence value, StringBuilder out) {
+        Policy policy = policies[field.ordinal()];
+        int end = value.length();
+        if (field == Field.EMAIL) {
+            int at = lastIndexOf(value, '@');
+            if (at >= 0) {
+                appendMasked(policy, value, 0, at, out);
+                out.append(value, at, end);
+                return;
+            }
+        }
+        appendMasked(policy, value, 0, end, out);
+    }
+
+    private static void appendMasked(Policy policy, CharSequence value, int start, int end, StringBuilder out) {
+        if (start == end) {
+            return;
+        }
+        if (Character.codePointCount(value, start, end) <= policy.keepLeading() + policy.keepTrailing()) {
+            out.append(policy.mask());
+            return;
+        }
+        int leadingEnd = Character.offsetByCodePoints(value, start, policy.keepLeading());
+        int trailingStart = Character.offsetByCodePoints(value, end, -policy.keepTrailing());
+        out.append(value, start, leadingEnd)
+                .append(policy.mask())
+                .append(value, trailingStart, end);
+    }
+
+    private static int lastIndexOf(CharSequence value, char c) {
+        for (int i = value.length() - 1; i >= 0; i--) {
+            if (value.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,78 @@
+package com.banking.notification.service;
+
+import com.banking.notification.entity.NotificationRecipient;
+import com.banking.notification.repository.NotificationRecipientRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Real contact details by notification id. They are stored encrypted in notification_recipients and
+ * the decrypted entries are kept in a bounded in-memory cache, filled on insert, so claims, retries
+ * and resends normally resolve recipients without a query or a decryption. Only ids missing from
+ * the cache are loaded, with one query.
+ */
+@Service
+public class RecipientVault {
+
+    private final NotificationRecipientRepository recipientRepository;
+    private final Cache<Long, NotificationRecipient> cache;
+    private final Counter hits;
+    private final Counter misses;
+
+    public RecipientVault(NotificationRecipientRepository recipientRepository,
+                          MeterRegistry meterRegistry,
+                          @Value("${notification.recipients.cache.max-size}") long maxSize) {
+        this.recipientRepository = recipientRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .build();
+        this.hits = requestCounter(meterRegistry, "hit");
+        this.misses = requestCounter(meterRegistry, "miss");
+        Gauge.builder("notification.recipients.cache.size", cache, Cache::estimatedSize)
+                .description("Decrypted recipients currently cached")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Saves the recipients in the caller's transaction. Ids come from the notification sequence and
+     * are never reused, so an entry cached for a rolled-back insert is simply never asked for.
+     */
+    public void storeAll(List<NotificationRecipient> recipients) {
+        recipientRepository.saveAll(recipients);
+        for (NotificationRecipient recipient : recipients) {
+            cache.put(recipient.getNotificationId(), recipient);
+        }
+    }
+
+    /**
+     * Recipients for the given notification ids; ids without a stored recipient are absent.
+     */
+    public Map<Long, NotificationRecipient> findAll(Collection<Long> notificationIds) {
+        int[] loaded = new int[1];
+        Map<Long, NotificationRecipient> found = cache.getAll(notificationIds, missing -> {
+            loaded[0] = missing.size();
+            return recipientRepository.findAllById(List.copyOf(missing)).stream()
+                    .collect(Collectors.toMap(NotificationRecipient::getNotificationId, Function.identity()));
+        });
+        misses.increment(loaded[0]);
+        hits.increment(notificationIds.size() - loaded[0]);
+        return found;
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("notification.recipients.cache.requests")
+                .tag("result", result)
+                .description("Recipient lookups by cache result")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,65 @@
+package com.banking.notification.service;
+
+import com.banking.notification.dto.RetryJobStatus;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Progress of one manual retry run; updated by the retry thread, read by the REST API
+final class RetryJob {
+
+    enum State { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private final String id;
+    private final LocalDateTime requestedAt;
+    private final AtomicInteger claimed = new AtomicInteger();
+    private final AtomicInteger sent = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicInteger exhausted = new AtomicInteger();
+    private volatile State state = State.QUEUED;
+    private volatile LocalDateTime finishedAt;
+    private volatile String error;
+
+    RetryJob(String id, LocalDateTime requestedAt) {
+        this.id = id;
+        this.requestedAt = requestedAt;
+    }
+
+    String id() {
+        return id;
+    }
+
+    LocalDateTime requestedAt() {
+        return requestedAt;
+    }
+
+    boolean isFinished() {
+        return state == State.COMPLETED || state == State.FAILED;
+    }
+
+    void started() {
+        state = State.RUNNING;
+    }
+
+    void chunkCompleted(int claimedRows, int sentRows, int failedRows, int exhaustedRows) {
+        claimed.addAndGet(claimedRows);
+        sent.addAndGet(sentRows);
+        failed.addAndGet(failedRows);
+        exhausted.addAndGet(exhaustedRows);
+    }
+
+    void completed() {
+        finishedAt = LocalDateTime.now();
+        state = State.COMPLETED;
+    }
+
+    void failed(Throwable cause) {
+        error = cause.getMessage();
+        finishedAt = LocalDateTime.now();
+        state = State.FAILED;
+    }
+
+    RetryJobStatus toStatus() {
+        return new RetryJobStatus(id, state.name(), claimed.get(), sent.get(), failed.get(), exhausted.get(),
+                requestedAt, finishedAt, error);
+    }
+}
@@ -0,0 +1,188 @@
+package com.banking.notification.service;
+
+import com.banking.notification.channel.ChannelRouter;
+import com.banking.notification.dto.RetryJobStatus;
+import com.banking.notification.entity.Notification;
+import com.banking.notification.exception.PermanentDeliveryException;
+import com.banking.notification.service.NotificationOutbox.OutboxEntry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resends FAILED notifications in bounded chunks. Each chunk is claimed with SKIP LOCKED,
+ * sent with at most {@code concurrency} messages in flight, and its outcomes are committed
+ * before the next chunk is claimed. Failed rows get their next attempt scheduled with
+ * exponential backoff and jitter, and become EXHAUSTED after {@code max-attempts}.
+ * <p>
+ * Due retries are picked up every {@code poll-interval-ms}; {@link #submitJob()} starts a
+ * manual run over every FAILED row regardless of backoff and reports progress by job id.
+ */
+@Component
+@Slf4j
+public class RetryScheduler {
+
+    private final NotificationOutbox outbox;
+    private final ChannelRouter channelRouter;
+    private final MetricsService metricsService;
+    private final int chunkSize;
+    private final Semaphore permits;
+    private final long pollIntervalMs;
+    private final Map<String, RetryJob> jobs;
+    private ScheduledExecutorService executor;
+    private RetryJob activeJob;
+
+    public RetryScheduler(NotificationOutbox outbox,
+                          ChannelRouter channelRouter,
+                          MetricsService metricsService,
+                          @Value("${notification.retry.chunk-size}") int chunkSize,
+                          @Value("${notification.retry.concurrency}") int concurrency,
+                          @Value("${notification.retry.poll-interval-ms}") long pollIntervalMs,
+                          @Value("${notification.retry.job-history}") int jobHistory) {
+        this.outbox = outbox;
+        this.channelRouter = channelRouter;
+        this.metricsService = metricsService;
+        this.chunkSize = chunkSize;
+        this.permits = new Semaphore(concurrency);
+        this.pollIntervalMs = pollIntervalMs;
+        this.jobs = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, RetryJob> eldest) {
+                return size() > jobHistory;
+            }
+        };
+    }
+
+    @PostConstruct
+    public void start() {
+        // One thread: scheduled passes and manual jobs never claim chunks concurrently on this instance
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "notification-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (pollIntervalMs > 0) {
+            executor.scheduleWithFixedDelay(this::retryDue, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Starts a manual retry of all FAILED notifications, or returns the job already running.
+     */
+    public synchronized RetryJobStatus submitJob() {
+        if (activeJob != null && !activeJob.isFinished()) {
+            return activeJob.toStatus();
+        }
+        RetryJob job = new RetryJob(UUID.randomUUID().toString(), LocalDateTime.now());
+        jobs.put(job.id(), job);
+        activeJob = job;
+        executor.execute(() -> runJob(job));
+        log.info("Submitted retry job {}", job.id());
+        return job.toStatus();
+    }
+
+    public synchronized Optional<RetryJobStatus> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(RetryJob::toStatus);
+    }
+
+    void retryDue() {
+        try {
+            List<OutboxEntry> chunk;
+            do {
+                chunk = outbox.claimDueRetries(chunkSize);
+                if (!chunk.isEmpty()) {
+                    deliver(chunk, null);
+                }
+            } while (chunk.size() == chunkSize && !Thread.currentThread().isInterrupted());
+        } catch (RuntimeException e) {
+            // RETRYING rows of a failed chunk are reclaimed once their lease expires
+            log.error("Scheduled notification retry failed", e);
+        }
+    }
+
+    private void runJob(RetryJob job) {
+        job.started();
+        try {
+            List<OutboxEntry> chunk;
+            while (!(chunk = outbox.claimFailedBefore(job.requestedAt(), chunkSize)).isEmpty()) {
+                deliver(chunk, job);
+            }
+            job.completed();
+            log.info("Retry job {} completed: {}", job.id(), job.toStatus());
+        } catch (RuntimeException e) {
+            job.failed(e);
+            log.error("Retry job {} failed", job.id(), e);
+        }
+    }
+
+    private void deliver(List<OutboxEntry> chunk, RetryJob job) {
+        List<CompletableFuture<Void>> results = new ArrayList<>(chunk.size());
+        for (OutboxEntry entry : chunk) {
+            permits.acquireUninterruptibly();
+            CompletableFuture<Void> result = channelRouter.send(entry.notification(), entry.recipient());
+            result.whenComplete((ignored, error) -> permits.release());
+            results.add(result);
+        }
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).exceptionally(error -> null).join();
+
+        List<Notification> sent = new ArrayList<>();
+        Map<String, List<Notification>> failedByError = new HashMap<>();
+        Map<String, List<Notification>> rejectedByError = new HashMap<>();
+        int exhausted = 0;
+        for (int i = 0; i < chunk.size(); i++) {
+            Notification notification = chunk.get(i).notification();
+            CompletableFuture<Void> result = results.get(i);
+            if (!result.isCompletedExceptionally()) {
+                sent.add(notification);
+                metricsService.recordSent(notification.getNotificationType(), notification.getChannel());
+            } else {
+                Throwable error = unwrap(result.exceptionNow());
+                boolean permanent = error instanceof PermanentDeliveryException;
+                (permanent ? rejectedByError : failedByError)
+                        .computeIfAbsent(String.valueOf(error.getMessage()), key -> new ArrayList<>())
+                        .add(notification);
+                metricsService.recordFailed(notification.getNotificationType(), notification.getChannel());
+                if (permanent || outbox.isLastAttempt(notification)) {
+                    exhausted++;
+                    log.warn("Notification {} exhausted its retries: {}", notification.getId(), error.getMessage());
+                }
+            }
+        }
+        outbox.recordOutcomes(sent, failedByError, rejectedByError);
+        int failed = chunk.size() - sent.size();
+        log.info("Retried {} notifications: {} sent, {} failed, {} exhausted", chunk.size(), sent.size(), failed, exhausted);
+        if (job != null) {
+            job.chunkCompleted(chunk.size(), sent.size(), failed, exhausted);
+        }
+    }
+
+    private Throwable unwrap(Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            return error.getCause();
+        }
+        return error;
+    }
+}
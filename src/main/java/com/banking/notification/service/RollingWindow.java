@@ -0,0 +1,48 @@
+package com.banking.notification.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Event count over a sliding window, kept as a ring of time buckets. Each slot packs the bucket's
+ * epoch (upper 32 bits) and its count (lower 32 bits) into one long, so moving a slot on to a new
+ * bucket and counting into it are a single CAS and no increment is lost at bucket boundaries.
+ */
+final class RollingWindow {
+
+    private static final long COUNT_MASK = 0xFFFF_FFFFL;
+
+    private final long bucketMillis;
+    private final int buckets;
+    private final AtomicLongArray slots;
+
+    RollingWindow(long bucketMillis, int buckets) {
+        this.bucketMillis = bucketMillis;
+        this.buckets = buckets;
+        this.slots = new AtomicLongArray(buckets);
+    }
+
+    void increment(long nowMillis) {
+        long epoch = (nowMillis / bucketMillis) & COUNT_MASK;
+        int index = (int) (epoch % buckets);
+        while (true) {
+            long slot = slots.get(index);
+            long next = (slot >>> 32) == epoch ? slot + 1 : (epoch << 32) | 1;
+            if (slots.compareAndSet(index, slot, next)) {
+                return;
+            }
+        }
+    }
+
+    long sum(long nowMillis) {
+        long current = (nowMillis / bucketMillis) & COUNT_MASK;
+        long sum = 0;
+        for (int i = 0; i < buckets; i++) {
+            long slot = slots.get(i);
+            long age = current - (slot >>> 32);
+            if (age >= 0 && age < buckets) {
+                sum += slot & COUNT_MASK;
+            }
+        }
+        return sum;
+    }
+}
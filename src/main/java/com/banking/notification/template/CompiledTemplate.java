@@ -0,0 +1,58 @@
+package com.banking.notification.template;
+
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A template parsed once into alternating literal segments and variable slots.
+ * Rendering is a straight walk over both arrays with no parsing.
+ */
+public final class CompiledTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    private final String[] literals;
+    private final TemplateVariable[] variables;
+    private final DateTimeFormatter dateTimeFormatter;
+
+    private CompiledTemplate(String[] literals, TemplateVariable[] variables, DateTimeFormatter dateTimeFormatter) {
+        this.literals = literals;
+        this.variables = variables;
+        this.dateTimeFormatter = dateTimeFormatter;
+    }
+
+    public static CompiledTemplate compile(String source, DateTimeFormatter dateTimeFormatter) {
+        List<String> literals = new ArrayList<>();
+        List<TemplateVariable> variables = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int open = source.indexOf(OPEN, position);
+            if (open < 0) {
+                break;
+            }
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder at offset " + open);
+            }
+            literals.add(source.substring(position, open));
+            variables.add(TemplateVariable.fromPlaceholder(source.substring(open + OPEN.length(), close).trim()));
+            position = close + CLOSE.length();
+        }
+        literals.add(source.substring(position));
+        return new CompiledTemplate(
+                literals.toArray(new String[0]),
+                variables.toArray(new TemplateVariable[0]),
+                dateTimeFormatter
+        );
+    }
+
+    public void renderTo(StringBuilder out, TemplateModel model) {
+        out.append(literals[0]);
+        for (int i = 0; i < variables.length; i++) {
+            model.appendTo(variables[i], out, dateTimeFormatter);
+            out.append(literals[i + 1]);
+        }
+    }
+}
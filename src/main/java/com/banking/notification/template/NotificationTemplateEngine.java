@@ -0,0 +1,234 @@
+package com.banking.notification.template;
+
+import com.banking.notification.entity.NotificationChannel;
+import com.banking.notification.entity.NotificationType;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternUtils;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads notification templates once, compiles them and renders them into a per-thread buffer.
+ * <p>
+ * Templates are files named {@code <type>.<channel>[.<language-tag>].txt}, for example
+ * {@code high_value_transaction.email.txt} or {@code account_status_change.email.hi-IN.txt}.
+ * The first line is the subject and the remainder is the body; both may use {@code {{variable}}}
+ * placeholders from {@link TemplateVariable}. Lookups fall back from the exact locale to its
+ * language, then to the untagged file, and from specific account/transaction types to the
+ * generic ACCOUNT_STATUS_CHANGE/HIGH_VALUE_TRANSACTION template.
+ * <p>
+ * When {@code notification.templates.reload-interval-ms} is positive the location is rescanned
+ * and, if any file changed, recompiled and swapped in. A broken edit keeps the previous set.
+ */
+@Component
+@Slf4j
+public class NotificationTemplateEngine {
+
+    private static final String DATE_TIME_PATTERN = "dd-MMM-yyyy HH:mm";
+    private static final String TEMPLATE_SUFFIX = ".txt";
+    private static final int MAX_RETAINED_BUFFER = 16 * 1024;
+    private static final NotificationType[] TYPES = NotificationType.values();
+    private static final NotificationChannel[] CHANNELS = NotificationChannel.values();
+
+    private final ResourcePatternResolver resourceResolver;
+    private final String location;
+    private final Locale defaultLocale;
+    private final long reloadIntervalMs;
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(1024));
+    private volatile TemplateSet templates;
+    private volatile String fingerprint;
+    private ScheduledExecutorService reloader;
+
+    public NotificationTemplateEngine(ResourceLoader resourceLoader,
+                                      @Value("${notification.templates.location}") String location,
+                                      @Value("${notification.templates.default-locale}") String defaultLocale,
+                                      @Value("${notification.templates.reload-interval-ms}") long reloadIntervalMs) {
+        this.resourceResolver = ResourcePatternUtils.getResourcePatternResolver(resourceLoader);
+        this.location = location.endsWith("/") ? location : location + "/";
+        this.defaultLocale = Locale.forLanguageTag(defaultLocale);
+        this.reloadIntervalMs = reloadIntervalMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        Resource[] resources = scan();
+        templates = compile(resources);
+        fingerprint = fingerprint(resources);
+        if (reloadIntervalMs > 0) {
+            reloader = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "template-reloader");
+                thread.setDaemon(true);
+                return thread;
+            });
+            reloader.scheduleWithFixedDelay(this::reloadIfChanged, reloadIntervalMs, reloadIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (reloader != null) {
+            reloader.shutdownNow();
+        }
+    }
+
+    public RenderedMessage render(NotificationType type, NotificationChannel channel, TemplateModel model) {
+        return render(type, channel, defaultLocale, model);
+    }
+
+    public RenderedMessage render(NotificationType type, NotificationChannel channel, Locale locale, TemplateModel model) {
+        NotificationTemplate template = templates.resolve(type, channel, locale);
+        StringBuilder buffer = buffers.get();
+        buffer.setLength(0);
+        template.subject().renderTo(buffer, model);
+        String subject = buffer.toString();
+        buffer.setLength(0);
+        template.body().renderTo(buffer, model);
+        String body = buffer.toString();
+        if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+            buffers.remove();
+        }
+        return new RenderedMessage(subject, body);
+    }
+
+    void reloadIfChanged() {
+        try {
+            Resource[] resources = scan();
+            String current = fingerprint(resources);
+            if (current.equals(fingerprint)) {
+                return;
+            }
+            templates = compile(resources);
+            fingerprint = current;
+            log.info("Reloaded {} notification templates from {}", resources.length, location);
+        } catch (RuntimeException e) {
+            log.error("Failed to reload notification templates from {}, keeping previous templates", location, e);
+        }
+    }
+
+    private Resource[] scan() {
+        try {
+            return resourceResolver.getResources(location + "*" + TEMPLATE_SUFFIX);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list notification templates in " + location, e);
+        }
+    }
+
+    private String fingerprint(Resource[] resources) {
+        StringBuilder fingerprint = new StringBuilder();
+        for (Resource resource : resources) {
+            try {
+                fingerprint.append(resource.getFilename()).append(':').append(resource.lastModified()).append(';');
+            } catch (IOException e) {
+                fingerprint.append(resource.getFilename()).append(":?;");
+            }
+        }
+        return fingerprint.toString();
+    }
+
+    private TemplateSet compile(Resource[] resources) {
+        Map<String, NotificationTemplate> byKey = new HashMap<>();
+        for (Resource resource : resources) {
+            String filename = resource.getFilename();
+            String key = filename.substring(0, filename.length() - TEMPLATE_SUFFIX.length()).toLowerCase(Locale.ROOT);
+            String[] parts = key.split("\\.");
+            Locale locale = parts.length > 2 ? Locale.forLanguageTag(parts[2]) : defaultLocale;
+            try {
+                byKey.put(key, parse(resource.getContentAsString(StandardCharsets.UTF_8), locale));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read notification template " + filename, e);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalStateException("Invalid notification template " + filename + ": " + e.getMessage(), e);
+            }
+        }
+        log.debug("Compiled notification templates {}", byKey.keySet());
+        return new TemplateSet(byKey);
+    }
+
+    private NotificationTemplate parse(String source, Locale locale) {
+        String normalized = source.replace("\r\n", "\n");
+        int newline = normalized.indexOf('\n');
+        String subject = newline < 0 ? normalized : normalized.substring(0, newline);
+        String body = newline < 0 ? "" : normalized.substring(newline + 1);
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(DATE_TIME_PATTERN, locale);
+        return new NotificationTemplate(
+                CompiledTemplate.compile(subject, formatter),
+                CompiledTemplate.compile(body, formatter)
+        );
+    }
+
+    private static String key(NotificationType type, NotificationChannel channel, String languageTag) {
+        String key = type.name().toLowerCase(Locale.ROOT) + "." + channel.name().toLowerCase(Locale.ROOT);
+        return languageTag == null ? key : key + "." + languageTag.toLowerCase(Locale.ROOT);
+    }
+
+    private static NotificationType fallback(NotificationType type) {
+        return switch (type) {
+            case ACCOUNT_CREATED, ACCOUNT_FROZEN, ACCOUNT_ACTIVATED -> NotificationType.ACCOUNT_STATUS_CHANGE;
+            case TRANSACTION_ALERT, DEPOSIT_ALERT, WITHDRAWAL_ALERT, TRANSFER_ALERT -> NotificationType.HIGH_VALUE_TRANSACTION;
+            default -> type;
+        };
+    }
+
+    private record NotificationTemplate(CompiledTemplate subject, CompiledTemplate body) {
+    }
+
+    // Immutable set of compiled templates; per-locale lookup tables are built on first use
+    private static final class TemplateSet {
+
+        private final Map<String, NotificationTemplate> byKey;
+        private final Map<Locale, NotificationTemplate[][]> byLocale = new ConcurrentHashMap<>();
+
+        private TemplateSet(Map<String, NotificationTemplate> byKey) {
+            this.byKey = byKey;
+        }
+
+        NotificationTemplate resolve(NotificationType type, NotificationChannel channel, Locale locale) {
+            NotificationTemplate template = byLocale.computeIfAbsent(locale, this::buildTable)[type.ordinal()][channel.ordinal()];
+            if (template == null) {
+                throw new IllegalStateException("No notification template for " + type + "/" + channel);
+            }
+            return template;
+        }
+
+        private NotificationTemplate[][] buildTable(Locale locale) {
+            NotificationTemplate[][] table = new NotificationTemplate[TYPES.length][CHANNELS.length];
+            for (NotificationType type : TYPES) {
+                for (NotificationChannel channel : CHANNELS) {
+                    NotificationTemplate template = find(type, channel, locale);
+                    if (template == null && fallback(type) != type) {
+                        template = find(fallback(type), channel, locale);
+                    }
+                    table[type.ordinal()][channel.ordinal()] = template;
+                }
+            }
+            return table;
+        }
+
+        private NotificationTemplate find(NotificationType type, NotificationChannel channel, Locale locale) {
+            NotificationTemplate template = byKey.get(key(type, channel, locale.toLanguageTag()));
+            if (template == null && !locale.getLanguage().isEmpty()) {
+                template = byKey.get(key(type, channel, locale.getLanguage()));
+            }
+            if (template == null) {
+                template = byKey.get(key(type, channel, null));
+            }
+            return template;
+        }
+    }
+}
@@ -0,0 +1,4 @@
+package com.banking.notification.template;
+
+public record RenderedMessage(String subject, String body) {
+}
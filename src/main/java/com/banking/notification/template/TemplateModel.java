@@ -0,0 +1,39 @@
+package com.banking.notification.template;
+
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+
+/**
+ * Values for one render, indexed by {@link TemplateVariable} ordinal. Values are appended
+ * straight into the render buffer, so numbers and dates never go through an intermediate String.
+ */
+public final class TemplateModel {
+
+    private static final int VARIABLE_COUNT = TemplateVariable.values().length;
+
+    private final Object[] values = new Object[VARIABLE_COUNT];
+
+    public TemplateModel set(TemplateVariable variable, Object value) {
+        values[variable.ordinal()] = value;
+        return this;
+    }
+
+    public Object get(TemplateVariable variable) {
+        return values[variable.ordinal()];
+    }
+
+    void appendTo(TemplateVariable variable, StringBuilder out, DateTimeFormatter dateTimeFormatter) {
+        Object value = values[variable.ordinal()];
+        if (value instanceof CharSequence text) {
+            out.append(text);
+        } else if (value instanceof Long number) {
+            out.append(number.longValue());
+        } else if (value instanceof Integer number) {
+            out.append(number.intValue());
+        } else if (value instanceof TemporalAccessor temporal) {
+            dateTimeFormatter.formatTo(temporal, out);
+        } else {
+            out.append(value);
+        }
+    }
+}
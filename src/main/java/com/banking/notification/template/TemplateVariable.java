@@ -0,0 +1,36 @@
+package com.banking.notification.template;
+
+/**
+ * Placeholders a notification template may reference as {@code {{name}}}.
+ */
+public enum TemplateVariable {
+    CUSTOMER_NAME("customerName"),
+    ACCOUNT_NUMBER("accountNumber"),
+    RAW_ACCOUNT_NUMBER("rawAccountNumber"),
+    AMOUNT("amount"),
+    TRANSACTION_TYPE("transactionType"),
+    TRANSACTION_ID("transactionId"),
+    DATE_TIME("dateTime"),
+    ACCOUNT_STATUS("status"),
+    // One line per account in a digest: masked account number and its latest status
+    ACCOUNT_CHANGES("accountChanges");
+
+    private final String placeholder;
+
+    TemplateVariable(String placeholder) {
+        this.placeholder = placeholder;
+    }
+
+    public String getPlaceholder() {
+        return placeholder;
+    }
+
+    public static TemplateVariable fromPlaceholder(String placeholder) {
+        for (TemplateVariable variable : values()) {
+            if (variable.placeholder.equals(placeholder)) {
+                return variable;
+            }
+        }
+        throw new IllegalArgumentException("Unknown template variable: " + placeholder);
+    }
+}
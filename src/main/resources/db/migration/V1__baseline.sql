@@ -0,0 +1,38 @@
+-- Schema as previously created by spring.jpa.hibernate.ddl-auto=update.
+-- Existing databases are baselined at version 1 (spring.flyway.baseline-on-migrate) and skip this script.
+
+CREATE SEQUENCE IF NOT EXISTS notifications_log_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS notifications_log (
+    id                BIGINT        NOT NULL PRIMARY KEY,
+    recipient_email   VARCHAR(255)  NOT NULL,
+    recipient_phone   VARCHAR(255),
+    notification_type VARCHAR(255)  NOT NULL,
+    channel           VARCHAR(255)  NOT NULL,
+    subject           VARCHAR(500)  NOT NULL,
+    message           VARCHAR(2000) NOT NULL,
+    status            VARCHAR(255)  NOT NULL,
+    error_message     VARCHAR(255),
+    reference_id      BIGINT,
+    created_at        TIMESTAMP(6)  NOT NULL,
+    sent_at           TIMESTAMP(6),
+    failed_at         TIMESTAMP(6),
+    claimed_at        TIMESTAMP(6),
+    attempt_count     INTEGER       NOT NULL DEFAULT 0,
+    next_attempt_at   TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS notification_recipients (
+    notification_id BIGINT       NOT NULL PRIMARY KEY,
+    email           VARCHAR(255),
+    phone           VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS notification_idempotency_keys (
+    notification_type VARCHAR(255) NOT NULL,
+    reference_id      BIGINT       NOT NULL,
+    channel           VARCHAR(255) NOT NULL,
+    notification_id   BIGINT       NOT NULL,
+    created_at        TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (notification_type, reference_id, channel)
+);
@@ -0,0 +1,83 @@
+-- Range-partitions notifications_log by created_at, one partition per calendar month.
+-- The primary key has to include the partition key, so it becomes (id, created_at); ids stay unique
+-- because they all come from notifications_log_seq.
+
+ALTER TABLE notifications_log RENAME TO notifications_log_unpartitioned;
+ALTER TABLE notifications_log_unpartitioned DROP CONSTRAINT IF EXISTS notifications_log_pkey;
+DROP INDEX IF EXISTS idx_notifications_log_created_id;
+DROP INDEX IF EXISTS idx_notifications_log_status_created_id;
+DROP INDEX IF EXISTS idx_notifications_log_type_created_id;
+DROP INDEX IF EXISTS idx_notifications_log_channel_created_id;
+DROP INDEX IF EXISTS idx_notifications_log_reference_created_id;
+DROP INDEX IF EXISTS idx_notifications_log_status_next_attempt;
+
+CREATE TABLE notifications_log (
+    id                BIGINT        NOT NULL,
+    recipient_email   VARCHAR(255)  NOT NULL,
+    recipient_phone   VARCHAR(255),
+    notification_type VARCHAR(255)  NOT NULL,
+    channel           VARCHAR(255)  NOT NULL,
+    subject           VARCHAR(500)  NOT NULL,
+    message           VARCHAR(2000) NOT NULL,
+    status            VARCHAR(255)  NOT NULL,
+    error_message     VARCHAR(255),
+    reference_id      BIGINT,
+    created_at        TIMESTAMP(6)  NOT NULL,
+    sent_at           TIMESTAMP(6),
+    failed_at         TIMESTAMP(6),
+    claimed_at        TIMESTAMP(6),
+    attempt_count     INTEGER       NOT NULL DEFAULT 0,
+    next_attempt_at   TIMESTAMP(6),
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- Catches rows outside every monthly partition; the retention job creates partitions ahead of time so it stays empty
+CREATE TABLE notifications_log_default PARTITION OF notifications_log DEFAULT;
+
+-- Also called by the retention job to create upcoming months
+CREATE OR REPLACE FUNCTION create_notifications_log_partition(month_of DATE) RETURNS TEXT AS $$
+DECLARE
+    month_start    DATE := date_trunc('month', month_of)::DATE;
+    partition_name TEXT := 'notifications_log_' || to_char(month_start, 'YYYY_MM');
+BEGIN
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF notifications_log FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, month_start, (month_start + INTERVAL '1 month')::DATE);
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Partitions for every month that has rows, through three months from now
+DO $$
+DECLARE
+    month_start DATE;
+BEGIN
+    month_start := date_trunc('month', LEAST(COALESCE((SELECT min(created_at) FROM notifications_log_unpartitioned), now()), now()))::DATE;
+    WHILE month_start <= (date_trunc('month', now()) + INTERVAL '3 months')::DATE LOOP
+        PERFORM create_notifications_log_partition(month_start);
+        month_start := (month_start + INTERVAL '1 month')::DATE;
+    END LOOP;
+END;
+$$;
+
+-- Indexes on the parent are created on every partition, including ones added later.
+-- (created_at, id) backs the keyset-paginated query API; the other indexes prefix it with each filter column.
+CREATE INDEX idx_notifications_log_created_id ON notifications_log (created_at, id);
+CREATE INDEX idx_notifications_log_status_created_id ON notifications_log (status, created_at, id);
+CREATE INDEX idx_notifications_log_type_created_id ON notifications_log (notification_type, created_at, id);
+CREATE INDEX idx_notifications_log_channel_created_id ON notifications_log (channel, created_at, id);
+CREATE INDEX idx_notifications_log_reference_created_id ON notifications_log (reference_id, created_at, id);
+CREATE INDEX idx_notifications_log_status_next_attempt ON notifications_log (status, next_attempt_at);
+
+INSERT INTO notifications_log (id, recipient_email, recipient_phone, notification_type, channel, subject, message,
+                               status, error_message, reference_id, created_at, sent_at, failed_at, claimed_at,
+                               attempt_count, next_attempt_at)
+SELECT id, recipient_email, recipient_phone, notification_type, channel, subject, message,
+       status, error_message, reference_id, created_at, sent_at, failed_at, claimed_at,
+       attempt_count, next_attempt_at
+FROM notifications_log_unpartitioned;
+
+DROP TABLE notifications_log_unpartitioned;
+
+CREATE INDEX IF NOT EXISTS idx_notification_idempotency_keys_created ON notification_idempotency_keys (created_at);
+
+ANALYZE notifications_log;
@@ -0,0 +1,6 @@
+-- Delivery priority, the ordinal of NotificationPriority: 0 = HIGH, 1 = NORMAL.
+-- A constant default makes this a catalog-only change, also for existing partitions.
+ALTER TABLE notifications_log ADD COLUMN priority SMALLINT NOT NULL DEFAULT 1;
+
+-- Outbox claims read PENDING rows of one channel in (priority, id) order
+CREATE INDEX idx_notifications_log_pending_priority ON notifications_log (channel, priority, id) WHERE status = 'PENDING';
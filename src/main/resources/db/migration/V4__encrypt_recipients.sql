@@ -0,0 +1,4 @@
+-- Recipient email and phone are stored AES-GCM encrypted from now on, which no longer fits in VARCHAR(255).
+-- Existing plaintext values stay readable and age out with their partitions.
+ALTER TABLE notification_recipients ALTER COLUMN email TYPE TEXT;
+ALTER TABLE notification_recipients ALTER COLUMN phone TYPE TEXT;
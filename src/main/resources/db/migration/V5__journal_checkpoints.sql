@@ -0,0 +1,7 @@
+-- Last journal sequence replayed into notifications_log, per local journal directory.
+-- Advanced in the same transaction as the replayed rows, so a record is inserted exactly once.
+CREATE TABLE notification_journal_checkpoints (
+    journal_id VARCHAR(64)  NOT NULL PRIMARY KEY,
+    sequence   BIGINT       NOT NULL,
+    updated_at TIMESTAMP(6) NOT NULL
+);
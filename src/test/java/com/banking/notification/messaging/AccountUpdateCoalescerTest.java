@@ -0,0 +1,98 @@
+package com.banking.notification.messaging;
+
+import com.banking.notification.config.RabbitMQConfig;
+import com.banking.notification.dto.AccountUpdateEvent;
+import com.banking.notification.entity.AccountStatus;
+import com.banking.notification.exception.CustomerServiceUnavailableException;
+import com.banking.notification.service.NotificationService;
+import com.rabbitmq.client.Channel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// No coalescing window, so every event is handled on the calling thread; the customer service is down throughout
+class AccountUpdateCoalescerTest {
+
+    private static final int MAX_PARK_ATTEMPTS = 3;
+
+    private final Channel channel = mock(Channel.class);
+    private final RetryTierRouter retryTierRouter = mock(RetryTierRouter.class);
+    private AccountUpdateCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        NotificationService notificationService = mock(NotificationService.class);
+        when(notificationService.processAccountUpdateNotifications(anyList()))
+                .thenThrow(new CustomerServiceUnavailableException("Customer service circuit is open"));
+        coalescer = new AccountUpdateCoalescer(notificationService, retryTierRouter, new SimpleMeterRegistry(),
+                0, 1, MAX_PARK_ATTEMPTS);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        coalescer.stop();
+    }
+
+    @Test
+    void parksThroughTheConfirmingPublisherAndCountsTheAttempt() throws Exception {
+        Message message = message(1, 1);
+
+        coalescer.submit(event(10), message, channel);
+
+        verify(retryTierRouter).publish(RabbitMQConfig.ACCOUNT_UPDATE_RETRY_QUEUE, message);
+        assertEquals(2, message.getMessageProperties().<Integer>getHeader(AccountUpdateCoalescer.PARK_ATTEMPT_HEADER));
+        verify(channel).basicAck(1, false);
+    }
+
+    @Test
+    void movesToTheParkingLotOnceTheAttemptsAreUsedUp() throws Exception {
+        Message message = message(1, MAX_PARK_ATTEMPTS);
+
+        coalescer.submit(event(10), message, channel);
+
+        verify(retryTierRouter).park(eq(message), any(CustomerServiceUnavailableException.class));
+        verify(retryTierRouter, never()).publish(any(), any());
+        verify(channel).basicAck(1, false);
+    }
+
+    @Test
+    void redeliversWhenTheBrokerDoesNotTakeThePark() throws Exception {
+        Message message = message(1, 0);
+        doThrow(new AmqpException("Broker rejected the publish")).when(retryTierRouter)
+                .publish(RabbitMQConfig.ACCOUNT_UPDATE_RETRY_QUEUE, message);
+
+        coalescer.submit(event(10), message, channel);
+
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+        verify(channel).basicNack(1, false, true);
+    }
+
+    private static AccountUpdateEvent event(long accountId) {
+        return new AccountUpdateEvent(accountId, 1L, "1234567890", "SAVINGS", 100.0, "USD", AccountStatus.ACTIVE, null);
+    }
+
+    private static Message message(long deliveryTag, int parkAttempts) {
+        MessageProperties properties = new MessageProperties();
+        properties.setDeliveryTag(deliveryTag);
+        if (parkAttempts > 0) {
+            properties.setHeader(AccountUpdateCoalescer.PARK_ATTEMPT_HEADER, parkAttempts);
+        }
+        return new Message(new byte[0], properties);
+    }
+}
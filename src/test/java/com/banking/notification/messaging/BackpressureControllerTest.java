@@ -0,0 +1,111 @@
+package com.banking.notification.messaging;
+
+import com.banking.notification.channel.ChannelRouter;
+import com.banking.notification.dto.AccountUpdateEvent;
+import com.banking.notification.entity.AccountStatus;
+import com.banking.notification.service.NotificationOutbox;
+import com.banking.notification.service.NotificationService;
+import com.banking.notification.service.OutboxDeliveryWorker;
+import com.rabbitmq.client.Channel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// A held account update has to be acknowledged before pausing closes the channel it arrived on
+class BackpressureControllerTest {
+
+    private final Channel channel = mock(Channel.class);
+    private final MessageListenerContainer accountContainer = mock(MessageListenerContainer.class);
+    private final ListenerContainerCoordinator coordinator = new ListenerContainerCoordinator();
+    private final NotificationOutbox outbox = mock(NotificationOutbox.class);
+    private AccountUpdateCoalescer coalescer;
+    private BackpressureController controller;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        NotificationService notificationService = mock(NotificationService.class);
+        when(notificationService.processAccountUpdateNotifications(anyList())).thenReturn(true);
+        coalescer = new AccountUpdateCoalescer(notificationService, mock(RetryTierRouter.class),
+                meterRegistry, 60_000, 1, 30);
+
+        RabbitListenerEndpointRegistry listenerRegistry = mock(RabbitListenerEndpointRegistry.class);
+        when(listenerRegistry.getListenerContainer("accountUpdateListener")).thenReturn(accountContainer);
+        when(outbox.countPending()).thenReturn(30_000L);
+        controller = new BackpressureController(listenerRegistry, outbox, mock(OutboxDeliveryWorker.class),
+                mock(ChannelRouter.class), coalescer, coordinator, meterRegistry, 1_000, 20_000, 5_000, 0.9, 0.5);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        controller.stop();
+        coalescer.stop();
+    }
+
+    @Test
+    void acknowledgesHeldAccountUpdatesBeforeStoppingTheirContainer() throws Exception {
+        coalescer.submit(event(10), message(1), channel);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+
+        controller.check();
+
+        InOrder order = inOrder(channel, accountContainer);
+        order.verify(channel).basicAck(1, false);
+        order.verify(accountContainer).stop();
+    }
+
+    @Test
+    void handlesUpdatesArrivingWhileTheContainerStopsRightAway() throws Exception {
+        doAnswer(invocation -> {
+            // A consumer finishing its last delivery during stop()
+            coalescer.submit(event(11), message(2), channel);
+            verify(channel).basicAck(2, false);
+            return null;
+        }).when(accountContainer).stop();
+
+        controller.check();
+
+        verify(accountContainer).stop();
+        verify(channel).basicAck(2, false);
+    }
+
+    @Test
+    void scalingIsSkippedWhileTheListenersArePaused() {
+        controller.check();
+        assertFalse(coordinator.runUnlessPaused(() -> { }));
+
+        when(outbox.countPending()).thenReturn(0L);
+        controller.check();
+
+        verify(accountContainer).start();
+        assertTrue(coordinator.runUnlessPaused(() -> { }));
+    }
+
+    private static AccountUpdateEvent event(long accountId) {
+        return new AccountUpdateEvent(accountId, 1L, "1234567890", "SAVINGS", 100.0, "USD", AccountStatus.ACTIVE, null);
+    }
+
+    private static Message message(long deliveryTag) {
+        MessageProperties properties = new MessageProperties();
+        properties.setDeliveryTag(deliveryTag);
+        return new Message(new byte[0], properties);
+    }
+}
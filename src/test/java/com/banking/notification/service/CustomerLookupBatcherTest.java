@@ -0,0 +1,150 @@
+package com.banking.notification.service;
+
+import com.banking.notification.service.CustomerServiceClient.CustomerDetails;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Stub for POST /api/customers/batch that knows every id except 404 and records each request's ids
+class CustomerLookupBatcherTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private final List<List<Long>> requests = new CopyOnWriteArrayList<>();
+    private CustomerServiceClient client;
+    private CustomerLookupBatcher batcher;
+
+    @BeforeEach
+    void startStub() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/api/customers/batch", exchange -> {
+            JsonNode ids = MAPPER.readTree(exchange.getRequestBody()).get("ids");
+            List<Long> requested = new ArrayList<>();
+            StringBuilder body = new StringBuilder("[");
+            for (JsonNode id : ids) {
+                requested.add(id.asLong());
+                if (id.asLong() != 404) {
+                    body.append(body.length() > 1 ? "," : "")
+                            .append("{\"id\":").append(id.asLong()).append(",\"email\":\"c").append(id.asLong()).append("@example.com\"}");
+                }
+            }
+            requests.add(requested);
+            byte[] response = body.append(']').toString().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        });
+        server.start();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        client = new CustomerServiceClient(meterRegistry, new MetricsService(meterRegistry),
+                "http://127.0.0.1:" + server.getAddress().getPort(), 500, 1_000, 10, 500, 10, 100, 5, 30_000);
+        batcher = new CustomerLookupBatcher(client, meterRegistry, true, 50, 4, 2);
+        batcher.start();
+    }
+
+    @AfterEach
+    void stopStub() throws Exception {
+        batcher.stop();
+        client.close();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void lookupsWithinWindowShareOneRequest() throws Exception {
+        CompletableFuture<Optional<CustomerDetails>> first = batcher.lookup(1L);
+        CompletableFuture<Optional<CustomerDetails>> second = batcher.lookup(2L);
+        CompletableFuture<Optional<CustomerDetails>> again = batcher.lookup(1L);
+
+        assertEquals("c1@example.com", first.get(5, TimeUnit.SECONDS).orElseThrow().getEmail());
+        assertEquals("c2@example.com", second.get(5, TimeUnit.SECONDS).orElseThrow().getEmail());
+        assertEquals(1L, again.get(5, TimeUnit.SECONDS).orElseThrow().getCustomerId());
+        assertEquals(1, requests.size());
+        assertEquals(2, requests.get(0).size());
+    }
+
+    @Test
+    void unknownIdCompletesEmpty() throws Exception {
+        CompletableFuture<Optional<CustomerDetails>> known = batcher.lookup(3L);
+        CompletableFuture<Optional<CustomerDetails>> unknown = batcher.lookup(404L);
+
+        assertTrue(known.get(5, TimeUnit.SECONDS).isPresent());
+        assertTrue(unknown.get(5, TimeUnit.SECONDS).isEmpty());
+    }
+
+    @Test
+    void batchesAreCappedAtMaxSize() throws Exception {
+        List<CompletableFuture<Optional<CustomerDetails>>> lookups = new ArrayList<>();
+        for (long id = 1; id <= 10; id++) {
+            lookups.add(batcher.lookup(id));
+        }
+        for (CompletableFuture<Optional<CustomerDetails>> lookup : lookups) {
+            assertTrue(lookup.get(5, TimeUnit.SECONDS).isPresent());
+        }
+
+        assertTrue(requests.size() >= 3, requests.size() + " requests");
+        assertTrue(requests.stream().allMatch(ids -> ids.size() <= 4));
+    }
+
+    @Test
+    void fallsBackToSingleLookupsWithoutBulkEndpoint() throws Exception {
+        server.removeContext("/api/customers/batch");
+        server.createContext("/api/customers/", exchange -> {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(404, -1);
+                exchange.close();
+                return;
+            }
+            String id = exchange.getRequestURI().getPath().substring("/api/customers/".length());
+            byte[] response = ("{\"id\":" + id + ",\"email\":\"c" + id + "@example.com\"}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        });
+
+        assertEquals("c7@example.com", batcher.lookup(7L).get(5, TimeUnit.SECONDS).orElseThrow().getEmail());
+        assertEquals("c8@example.com", batcher.lookup(8L).get(5, TimeUnit.SECONDS).orElseThrow().getEmail());
+    }
+
+    @Test
+    void pendingLookupsFailWhenStopped() throws Exception {
+        CompletableFuture<Optional<CustomerDetails>> collecting = batcher.lookup(5L);
+
+        batcher.stop();
+
+        // Completes either way: sent before the stop, or failed by it
+        collecting.handle((customer, error) -> customer).get(5, TimeUnit.SECONDS);
+        ExecutionException rejected = assertThrows(ExecutionException.class,
+                () -> batcher.lookup(6L).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, rejected.getCause());
+    }
+}
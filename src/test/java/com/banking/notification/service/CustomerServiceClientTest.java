@@ -0,0 +1,202 @@
+package com.banking.notification.service;
+
+import com.banking.notification.exception.CustomerServiceUnavailableException;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpClientErrorException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs the client against a JDK HttpServer stub whose response latency the tests control
+class CustomerServiceClientTest {
+
+    private static final long READ_TIMEOUT_MS = 200;
+    private static final int FAILURE_THRESHOLD = 3;
+    private static final long OPEN_MS = 300;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private final AtomicLong latencyMs = new AtomicLong();
+    private final AtomicInteger requests = new AtomicInteger();
+    private SimpleMeterRegistry meterRegistry;
+    private CustomerServiceClient client;
+
+    @BeforeEach
+    void startStub() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/api/customers/", exchange -> {
+            requests.incrementAndGet();
+            try {
+                Thread.sleep(latencyMs.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            String id = exchange.getRequestURI().getPath().substring("/api/customers/".length());
+            if (id.equals("404")) {
+                exchange.sendResponseHeaders(404, -1);
+                exchange.close();
+                return;
+            }
+            byte[] body = ("{\"id\":" + id + ",\"name\":\"Asha Rao\",\"email\":\"asha.rao@example.com\"}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        meterRegistry = new SimpleMeterRegistry();
+        client = newClient(10, 0);
+    }
+
+    @AfterEach
+    void stopStub() throws Exception {
+        client.close();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private CustomerServiceClient newClient(int maxConcurrent, long bulkheadWaitMs) {
+        return new CustomerServiceClient(meterRegistry, new MetricsService(meterRegistry),
+                "http://127.0.0.1:" + server.getAddress().getPort(), 500, READ_TIMEOUT_MS, 20, 500,
+                maxConcurrent, bulkheadWaitMs, FAILURE_THRESHOLD, OPEN_MS);
+    }
+
+    @Test
+    void fetchesCustomerThroughPool() {
+        CustomerServiceClient.CustomerDetails customer = client.fetchCustomerById(7L);
+
+        assertEquals(7L, customer.getCustomerId());
+        assertEquals("asha.rao@example.com", customer.getEmail());
+        assertEquals(1.0, meterRegistry.get("customer.client.calls").tag("outcome", "success").counter().count());
+    }
+
+    @Test
+    void slowResponseTimesOut() {
+        latencyMs.set(READ_TIMEOUT_MS * 5);
+
+        long start = System.nanoTime();
+        assertThrows(CustomerServiceUnavailableException.class, () -> client.fetchCustomerById(1L));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(elapsedMs < READ_TIMEOUT_MS * 4, "call took " + elapsedMs + " ms");
+    }
+
+    @Test
+    void notFoundDoesNotTripTheCircuit() {
+        for (int i = 0; i < FAILURE_THRESHOLD + 1; i++) {
+            assertThrows(HttpClientErrorException.NotFound.class, () -> client.fetchCustomerById(404L));
+        }
+
+        assertEquals(1.0, gauge("closed"));
+    }
+
+    @Test
+    void circuitOpensAfterRepeatedTimeoutsAndFailsFast() {
+        latencyMs.set(READ_TIMEOUT_MS * 5);
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            assertThrows(CustomerServiceUnavailableException.class, () -> client.fetchCustomerById(1L));
+        }
+        assertEquals(1.0, gauge("open"));
+        int requestsBefore = requests.get();
+
+        long start = System.nanoTime();
+        assertThrows(CustomerServiceUnavailableException.class, () -> client.fetchCustomerById(1L));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(elapsedMs < 50, "rejected call took " + elapsedMs + " ms");
+        assertEquals(requestsBefore, requests.get());
+        assertEquals(1.0, meterRegistry.get("customer.client.calls").tag("outcome", "circuit-open").counter().count());
+    }
+
+    @Test
+    void circuitClosesAfterSuccessfulTrialCall() throws Exception {
+        latencyMs.set(READ_TIMEOUT_MS * 5);
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            assertThrows(CustomerServiceUnavailableException.class, () -> client.fetchCustomerById(1L));
+        }
+        latencyMs.set(0);
+        Thread.sleep(OPEN_MS + 50);
+
+        assertEquals(2L, client.fetchCustomerById(2L).getCustomerId());
+        assertEquals(1.0, gauge("closed"));
+    }
+
+    @Test
+    void unexpectedFailureOfTrialCallReopensTheCircuit() throws Exception {
+        latencyMs.set(READ_TIMEOUT_MS * 5);
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            assertThrows(CustomerServiceUnavailableException.class, () -> client.fetchCustomerById(1L));
+        }
+        latencyMs.set(0);
+        Thread.sleep(OPEN_MS + 50);
+
+        // Map.of rejects the null inside the request, so the trial call fails with no RestClientException
+        assertThrows(NullPointerException.class, () -> client.fetchCustomersByIds(null));
+        assertEquals(1.0, gauge("open"));
+
+        Thread.sleep(OPEN_MS + 50);
+        assertEquals(2L, client.fetchCustomerById(2L).getCustomerId());
+        assertEquals(1.0, gauge("closed"));
+    }
+
+    @Test
+    void bulkheadRejectsCallsBeyondLimit() throws Exception {
+        client.close();
+        client = newClient(2, 0);
+        latencyMs.set(READ_TIMEOUT_MS / 2);
+        ExecutorService callers = Executors.newFixedThreadPool(6);
+        CountDownLatch ready = new CountDownLatch(1);
+        try {
+            List<Future<?>> calls = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                long id = i + 1;
+                calls.add(callers.submit(() -> {
+                    ready.await();
+                    return client.fetchCustomerById(id);
+                }));
+            }
+            ready.countDown();
+            int rejected = 0;
+            for (Future<?> call : calls) {
+                try {
+                    call.get(5, TimeUnit.SECONDS);
+                } catch (ExecutionException e) {
+                    assertTrue(e.getCause() instanceof CustomerServiceUnavailableException);
+                    rejected++;
+                }
+            }
+
+            assertTrue(rejected >= 1, "no call was rejected");
+            assertTrue(requests.get() <= 6 - rejected);
+            assertEquals(rejected, meterRegistry.get("customer.client.calls").tag("outcome", "bulkhead-full").counter().count());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    private double gauge(String state) {
+        return meterRegistry.get("customer.client.circuit.state").tag("state", state).gauge().value();
+    }
+}
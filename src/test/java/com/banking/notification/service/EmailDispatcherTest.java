@@ -0,0 +1,100 @@
+package com.banking.notification.service;
+
+import com.banking.notification.entity.NotificationPriority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.InternetAddress;
+import org.eclipse.angus.mail.smtp.SMTPAddressFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSendFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSenderFailedException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// SMTP replies as JavaMailSender reports them: wrapped in a MailSendException
+class EmailDispatcherTest {
+
+    @Test
+    void permanentForFiveHundredReplies() throws Exception {
+        assertTrue(EmailDispatcher.isPermanent(sendFailure(new SMTPAddressFailedException(
+                address(), "RCPT TO", 550, "5.1.1 mailbox unavailable"))));
+        assertTrue(EmailDispatcher.isPermanent(sendFailure(new SMTPSenderFailedException(
+                address(), "MAIL FROM", 553, "5.7.1 sender rejected"))));
+        assertTrue(EmailDispatcher.isPermanent(sendFailure(new SMTPSendFailedException(
+                "DATA", 554, "5.6.0 message rejected", null, null, null, null))));
+    }
+
+    @Test
+    void transientForFourHundredReplies() throws Exception {
+        assertFalse(EmailDispatcher.isPermanent(sendFailure(new SMTPAddressFailedException(
+                address(), "RCPT TO", 450, "4.2.1 mailbox busy"))));
+        assertFalse(EmailDispatcher.isPermanent(sendFailure(new SMTPSenderFailedException(
+                address(), "MAIL FROM", 421, "4.7.0 try again later"))));
+        assertFalse(EmailDispatcher.isPermanent(sendFailure(new SMTPSendFailedException(
+                "DATA", 452, "4.3.1 insufficient storage", null, null, null, null))));
+    }
+
+    @Test
+    void connectionErrorsAreRetried() {
+        assertFalse(EmailDispatcher.isPermanent(sendFailure(new MessagingException("Connection refused"))));
+        assertFalse(EmailDispatcher.isPermanent(new MailSendException("Mail server connection failed")));
+    }
+
+    @Test
+    void malformedMessagesArePermanent() {
+        assertTrue(EmailDispatcher.isPermanent(new MailParseException("Illegal address")));
+        assertTrue(EmailDispatcher.isPermanent(sendFailure(new AddressException("Missing final '@domain'"))));
+    }
+
+    @Test
+    void equalMessagesGoOutInSeparateSendsSoOneFailureMarksOnlyOne() throws Exception {
+        List<Integer> sendSizes = new CopyOnWriteArrayList<>();
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl() {
+            @Override
+            public void send(SimpleMailMessage... messages) {
+                sendSizes.add(messages.length);
+                if (sendSizes.size() == 2) {
+                    throw new MailSendException(Map.of(messages[0], new MessagingException("Connection reset")));
+                }
+            }
+        };
+        // No retries, so the failure completes the future right away
+        EmailDispatcher dispatcher = new EmailDispatcher(mailSender, new MetricsService(new SimpleMeterRegistry()),
+                1, 10, 10, 200, 100, 1_000, 0, 10, 0, 10, 100, 10);
+        dispatcher.start();
+        try {
+            CompletableFuture<Void> first = dispatcher.dispatch("a@example.com", "Alert", "Same", NotificationPriority.NORMAL);
+            CompletableFuture<Void> duplicate = dispatcher.dispatch("a@example.com", "Alert", "Same", NotificationPriority.NORMAL);
+            CompletableFuture<Void> other = dispatcher.dispatch("b@example.com", "Alert", "Other", NotificationPriority.NORMAL);
+
+            first.get(5, TimeUnit.SECONDS);
+            other.get(5, TimeUnit.SECONDS);
+            assertThrows(ExecutionException.class, () -> duplicate.get(5, TimeUnit.SECONDS));
+            assertEquals(List.of(2, 1), sendSizes);
+        } finally {
+            dispatcher.stop();
+        }
+    }
+
+    private static MailSendException sendFailure(Exception cause) {
+        return new MailSendException("Failed messages: " + cause.getMessage(), cause);
+    }
+
+    private static InternetAddress address() throws AddressException {
+        return new InternetAddress("customer@example.com");
+    }
+}
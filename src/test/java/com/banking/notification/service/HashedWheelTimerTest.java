@@ -0,0 +1,112 @@
+package com.banking.notification.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// 10 ms ticks on an 8 bucket wheel, so one turn is 80 ms
+class HashedWheelTimerTest {
+
+    private final HashedWheelTimer timer = new HashedWheelTimer("test-timer", 10, 8);
+
+    @AfterEach
+    void tearDown() throws Exception {
+        timer.stop();
+    }
+
+    @Test
+    void expiresTimeoutsInDeadlineOrder() throws Exception {
+        List<Integer> expired = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(3);
+        timer.schedule(() -> { expired.add(150); done.countDown(); }, 150);
+        timer.schedule(() -> { expired.add(30); done.countDown(); }, 30);
+        timer.schedule(() -> { expired.add(70); done.countDown(); }, 70);
+
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        assertEquals(List.of(30, 70, 150), expired);
+        assertEquals(0, timer.pending());
+    }
+
+    @Test
+    void waitsOutDelaysLongerThanOneTurnOfTheWheel() throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+        long start = System.nanoTime();
+        timer.schedule(done::countDown, 250);
+
+        // Its bucket comes around every 80 ms, twice before the turn it is due in
+        assertFalse(done.await(150, TimeUnit.MILLISECONDS));
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(250));
+    }
+
+    @Test
+    void cancelledTimeoutNeverRuns() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        HashedWheelTimer.Timeout timeout = timer.schedule(runs::incrementAndGet, 30);
+
+        assertTrue(timeout.cancel());
+        Thread.sleep(100);
+        assertEquals(0, runs.get());
+        assertEquals(0, timer.pending());
+        assertFalse(timeout.cancel());
+    }
+
+    @Test
+    void stopReturnsTasksThatDidNotRunAndRejectsNewOnes() throws Exception {
+        Runnable task = () -> { };
+        timer.schedule(task, 60_000);
+
+        List<Runnable> unprocessed = timer.stop();
+
+        assertEquals(List.of(task), unprocessed);
+        assertEquals(0, timer.pending());
+        assertThrows(IllegalStateException.class, () -> timer.schedule(() -> { }, 10));
+    }
+
+    @Test
+    void everyTaskScheduledDuringStopIsEitherRejectedOrReturned() throws Exception {
+        List<Runnable> accepted = new CopyOnWriteArrayList<>();
+        CountDownLatch started = new CountDownLatch(4);
+        List<Thread> schedulers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread scheduler = new Thread(() -> {
+                started.countDown();
+                while (true) {
+                    Runnable task = () -> { };
+                    try {
+                        timer.schedule(task, 60_000);
+                    } catch (IllegalStateException e) {
+                        return;
+                    }
+                    accepted.add(task);
+                }
+            });
+            scheduler.start();
+            schedulers.add(scheduler);
+        }
+        started.await();
+        Thread.sleep(20);
+
+        List<Runnable> unprocessed = timer.stop();
+        for (Thread scheduler : schedulers) {
+            scheduler.join(5_000);
+        }
+
+        Set<Runnable> returned = new HashSet<>(unprocessed);
+        assertEquals(accepted.size(), returned.size());
+        assertTrue(returned.containsAll(accepted));
+        assertEquals(0, timer.pending());
+    }
+}
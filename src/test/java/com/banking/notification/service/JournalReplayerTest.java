@@ -0,0 +1,157 @@
+package com.banking.notification.service;
+
+import com.banking.notification.dto.TransactionNotificationRequest;
+import com.banking.notification.entity.TransactionType;
+import com.banking.notification.repository.NotificationRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Real journal on a temp dir; the outbox insert fails with a constraint violation for transaction 666
+class JournalReplayerTest {
+
+    private static final long POISON = 666;
+
+    @TempDir
+    Path dir;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Long> queued = new CopyOnWriteArrayList<>();
+    private final List<Long> checkpoints = new CopyOnWriteArrayList<>();
+    private final List<LocalDateTime> acceptedTimes = new CopyOnWriteArrayList<>();
+    private NotificationJournal journal;
+    private JournalReplayer replayer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        journal = new NotificationJournal(new ObjectMapper(), meterRegistry, true, dir.toString(), 1, 4, false);
+        journal.open();
+        NotificationService notificationService = mock(NotificationService.class);
+        when(notificationService.sendTransactionNotifications(anyList(), anyList())).thenAnswer(invocation -> {
+            List<TransactionNotificationRequest> requests = invocation.getArgument(0);
+            if (requests.stream().anyMatch(request -> request.getTransactionId() == POISON)) {
+                throw new DataIntegrityViolationException("value too long for type character varying(255)");
+            }
+            requests.forEach(request -> queued.add(request.getTransactionId()));
+            acceptedTimes.addAll(invocation.getArgument(1));
+            return requests.size();
+        });
+        replayer = new JournalReplayer(journal, notificationService, mock(NotificationRepository.class),
+                new CheckpointTable(), new NoOpTransactionManager(), meterRegistry, 10, 20, 200);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        replayer.stop();
+        journal.close();
+    }
+
+    @Test
+    void skipsRecordThatViolatesConstraintAndMovesCheckpointPastIt() throws Exception {
+        long last = journal.appendAll(List.of(request(1), request(POISON), request(3)));
+
+        replayer.start();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!checkpoints.contains(last) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(checkpoints.contains(last), "checkpoint never reached " + last + ": " + checkpoints);
+        assertEquals(List.of(1L, 3L), queued);
+        assertFalse(queued.contains(POISON));
+        assertEquals(1.0, meterRegistry.get("notification.journal.skipped").counter().count());
+    }
+
+    @Test
+    void queuesRecordsWithTheTimeTheyWereAccepted() throws Exception {
+        LocalDateTime beforeAppend = LocalDateTime.now();
+        long last = journal.appendAll(List.of(request(1), request(2)));
+        LocalDateTime afterAppend = LocalDateTime.now();
+        Thread.sleep(50);
+
+        replayer.start();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!checkpoints.contains(last) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, acceptedTimes.size());
+        for (LocalDateTime acceptedAt : acceptedTimes) {
+            assertFalse(acceptedAt.isBefore(beforeAppend));
+            assertFalse(acceptedAt.isAfter(afterAppend));
+        }
+    }
+
+    @Test
+    void onlyConnectionAndTransientErrorsAreRetried() {
+        assertTrue(JournalReplayer.isTransient(new CannotGetJdbcConnectionException("down")));
+        assertTrue(JournalReplayer.isTransient(new QueryTimeoutException("slow")));
+        assertTrue(JournalReplayer.isTransient(new RuntimeException(new SQLException("reset", "08006"))));
+        assertFalse(JournalReplayer.isTransient(new DataIntegrityViolationException("duplicate")));
+        assertFalse(JournalReplayer.isTransient(new IllegalArgumentException("bad request")));
+    }
+
+    private static TransactionNotificationRequest request(long transactionId) {
+        return new TransactionNotificationRequest(transactionId, 7L, "1234567890", new BigDecimal("15000.00"),
+                TransactionType.TRANSFER_OUT, "customer@example.com", null, "Customer");
+    }
+
+    // Stands in for notification_journal_checkpoints: no row yet, and every saved sequence is recorded
+    private class CheckpointTable extends JdbcTemplate {
+
+        @Override
+        public <T> List<T> queryForList(String sql, Class<T> elementType, Object... args) {
+            return List.of();
+        }
+
+        @Override
+        public int update(String sql, Object... args) {
+            checkpoints.add((Long) args[1]);
+            return 1;
+        }
+    }
+
+    private static class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
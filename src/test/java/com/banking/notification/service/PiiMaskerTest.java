@@ -0,0 +1,72 @@
+package com.banking.notification.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// Policies as in application.properties
+class PiiMaskerTest {
+
+    private final PiiMasker masker = new PiiMasker(2, 0, "***", 0, 4, "******", 0, 4, "XXXX-XXXX-");
+
+    @Test
+    void nullAndEmptyPassThrough() {
+        assertNull(masker.maskEmail(null));
+        assertNull(masker.maskPhone(null));
+        assertNull(masker.maskAccountNumber(null));
+        assertEquals("", masker.maskEmail(""));
+        assertEquals("", masker.maskPhone(""));
+        assertEquals("", masker.maskAccountNumber(""));
+    }
+
+    @Test
+    void masksLocalPartOfEmail() {
+        assertEquals("jo***@example.com", masker.maskEmail("john.doe@example.com"));
+        assertEquals("jo***@example.com", masker.maskEmail("joe@example.com"));
+        // Only the part before the last '@' is masked
+        assertEquals("a@***@example.com", masker.maskEmail("a@b@example.com"));
+    }
+
+    @Test
+    void shortValuesBecomeTheMaskAlone() {
+        assertEquals("***@example.com", masker.maskEmail("jo@example.com"));
+        assertEquals("***@example.com", masker.maskEmail("j@example.com"));
+        assertEquals("@example.com", masker.maskEmail("@example.com"));
+        assertEquals("******", masker.maskPhone("1234"));
+        assertEquals("******", masker.maskPhone("12"));
+        assertEquals("XXXX-XXXX-", masker.maskAccountNumber("1234"));
+    }
+
+    @Test
+    void emailWithoutAtIsMaskedAsAWhole() {
+        assertEquals("jo***", masker.maskEmail("johndoe"));
+        assertEquals("***", masker.maskEmail("jo"));
+    }
+
+    @Test
+    void countsMultiByteCharactersAsOne() {
+        assertEquals("Zo***@example.com", masker.maskEmail("Zoë.Müller@example.com"));
+        assertEquals("Jü***@example.com", masker.maskEmail("Jürgen@example.com"));
+        // Surrogate pairs are never split
+        assertEquals("😀😀***@example.com", masker.maskEmail("😀😀abc@example.com"));
+        assertEquals("***@example.com", masker.maskEmail("😀😀@example.com"));
+        assertEquals("名前***", masker.maskEmail("名前太郎"));
+    }
+
+    @Test
+    void keepsLastFourDigitsOfPhoneAndAccountNumber() {
+        assertEquals("******3210", masker.maskPhone("+919876543210"));
+        assertEquals("XXXX-XXXX-7890", masker.maskAccountNumber("1234567890"));
+        assertEquals("XXXX-XXXX-2345", masker.maskAccountNumber("12345"));
+        // The mask has a fixed length, so it does not reveal how long the number was
+        assertEquals(masker.maskAccountNumber("9999990000").length(), masker.maskAccountNumber("99999999999990000").length());
+    }
+
+    @Test
+    void appendsToAnExistingBuilder() {
+        StringBuilder out = new StringBuilder("Account ");
+        masker.appendMasked(PiiMasker.Field.ACCOUNT_NUMBER, "1234567890", out);
+        assertEquals("Account XXXX-XXXX-7890", out.toString());
+    }
+}